@@ -0,0 +1,170 @@
+package ck.ckseekbar;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.drawable.ColorDrawable;
+import android.os.Debug;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.support.v4.content.ContextCompat;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that drawing an unchanged {@link CKSeekBar} does not allocate.
+ */
+@RunWith(AndroidJUnit4.class)
+public class CKSeekBarDrawTest {
+
+    private static final int WIDTH = 600;
+    private static final int HEIGHT = 300;
+    private static final int DRAW_COUNT = 100;
+    private static final long FRAME_NANOS = 5000000L;
+
+    private CKSeekBar<Integer> mSeekBar;
+    private Canvas mCanvas;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getTargetContext();
+
+        mSeekBar = new CKSeekBar<>(context);
+        mSeekBar.setOnOff(true, ContextCompat.getDrawable(context, R.drawable.baseline_cloud_black_48));
+        mSeekBar.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        mSeekBar.layout(0, 0, WIDTH, HEIGHT);
+
+        mCanvas = new Canvas(Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888));
+    }
+
+    @Test
+    public void onDraw_doesNotAllocate() {
+        // first draw builds the value labels
+        mSeekBar.onDraw(mCanvas);
+
+        assertEquals(0, countDrawAllocations());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void valueChange_allocatesOnlySelectionsUpToTheDraw() {
+        assertTrue(mSeekBar.preformatLabels());
+        // a widget without a window never runs the posted redraw, later changes find it pending and don't post again
+        mSeekBar.setSelectedMaxValue(90);
+        mSeekBar.onDraw(mCanvas);
+
+        Debug.startAllocCounting();
+        Debug.resetThreadAllocCount();
+        try {
+            for (int i = 0; i < DRAW_COUNT; i++) {
+                mSeekBar.setSelectedMinValue(i % 40);
+                mSeekBar.setSelectedMaxValue(50 + i % 40);
+                mSeekBar.onDraw(mCanvas);
+            }
+            // the model replaces its immutable selection once per change, nothing else is allocated
+            assertTrue(Debug.getThreadAllocCount() <= 2 * DRAW_COUNT);
+        } finally {
+            Debug.stopAllocCounting();
+        }
+    }
+
+    @Test
+    public void animationFrame_allocatesOnlySelectionUpToTheDraw() {
+        final int[] allocations = new int[1];
+        // the animation is driven by the main thread's Choreographer
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            @SuppressWarnings("deprecation")
+            public void run() {
+                mSeekBar.preformatLabels();
+                mSeekBar.animateToPrim(20, 80, 1000, null);
+                // the first frame starts the clock
+                mSeekBar.stepAnimation(FRAME_NANOS);
+                mSeekBar.onDraw(mCanvas);
+
+                Debug.startAllocCounting();
+                Debug.resetThreadAllocCount();
+                try {
+                    for (int i = 2; i < DRAW_COUNT; i++) {
+                        // a frame changes the values and invalidates the changed region, then the widget is drawn
+                        mSeekBar.stepAnimation(i * FRAME_NANOS);
+                        mSeekBar.onDraw(mCanvas);
+                    }
+                    allocations[0] = Debug.getThreadAllocCount();
+                } finally {
+                    Debug.stopAllocCounting();
+                    mSeekBar.cancelAnimation();
+                }
+            }
+        });
+
+        // one selection per frame
+        assertTrue(allocations[0] <= DRAW_COUNT - 2);
+    }
+
+    @Test
+    public void onDraw_drawsNonBitmapThumbsWithoutAllocating() {
+        ColorDrawable thumb = new ColorDrawable(Color.BLUE);
+        mSeekBar.setOnOff(true, thumb, thumb, new ColorDrawable(Color.RED));
+        mSeekBar.onDraw(mCanvas);
+
+        assertEquals(0, countDrawAllocations());
+        assertFalse(thumb.getBounds().isEmpty());
+    }
+
+    @Test
+    public void bind_replacesRangeAndSelectionWithoutLayout() {
+        mSeekBar.onDraw(mCanvas);
+        mSeekBar.bind(1000, 2000, 1200, 1800);
+
+        assertFalse(mSeekBar.isLayoutRequested());
+        assertEquals(Integer.valueOf(1000), mSeekBar.getAbsoluteMinValue());
+        assertEquals(Integer.valueOf(1200), mSeekBar.getSelectedMinValue());
+        assertEquals(Integer.valueOf(1800), mSeekBar.getSelectedMaxValue());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void drawable_drawsWithoutAllocating() {
+        CKSeekBarDrawable.Style style = new CKSeekBarDrawable.Style(mSeekBar);
+        CKSeekBarDrawable drawable = new CKSeekBarDrawable(style);
+        drawable.setBounds(0, 0, WIDTH, drawable.getIntrinsicHeight());
+        drawable.setValues(0, 100, 20, 80);
+        drawable.draw(mCanvas);
+
+        Debug.startAllocCounting();
+        Debug.resetThreadAllocCount();
+        try {
+            for (int i = 0; i < DRAW_COUNT; i++) {
+                drawable.draw(mCanvas);
+            }
+            assertEquals(0, Debug.getThreadAllocCount());
+        } finally {
+            Debug.stopAllocCounting();
+            style.release();
+        }
+        assertEquals(0.2, drawable.getNormalizedMin(), 1e-9);
+        assertEquals(0.8, drawable.getNormalizedMax(), 1e-9);
+    }
+
+    @SuppressWarnings("deprecation")
+    private int countDrawAllocations() {
+        Debug.startAllocCounting();
+        Debug.resetThreadAllocCount();
+        try {
+            for (int i = 0; i < DRAW_COUNT; i++) {
+                mSeekBar.onDraw(mCanvas);
+            }
+            return Debug.getThreadAllocCount();
+        } finally {
+            Debug.stopAllocCounting();
+        }
+    }
+}
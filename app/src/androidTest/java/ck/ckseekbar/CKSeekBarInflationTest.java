@@ -0,0 +1,78 @@
+package ck.ckseekbar;
+
+import android.content.Context;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.View;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks when {@link CKSeekBar} prepares its thumb images for each thumb loading mode.
+ */
+@RunWith(AndroidJUnit4.class)
+public class CKSeekBarInflationTest {
+
+    @After
+    public void tearDown() {
+        CKSeekBar.setDefaultThumbLoading(CKSeekBar.THUMB_LOADING_EAGER);
+    }
+
+    @Test
+    public void lazyConstructor_doesNotScaleThumbs() {
+        Context context = InstrumentationRegistry.getTargetContext();
+        long cachedBytes = CKSeekBar.getThumbCacheBytes();
+
+        CKSeekBar.setDefaultThumbLoading(CKSeekBar.THUMB_LOADING_LAZY);
+        new CKSeekBar<Integer>(context);
+
+        assertEquals(cachedBytes, CKSeekBar.getThumbCacheBytes());
+    }
+
+    @Test
+    public void detachedWidget_doesNotHoldThumbs() {
+        Context context = InstrumentationRegistry.getTargetContext();
+        long maxCachedBytes = ThumbBitmapCache.getMaxCachedBytes();
+        // images that nobody holds are evicted right away
+        ThumbBitmapCache.setMaxCachedBytes(0);
+        try {
+            long heldBytes = ThumbBitmapCache.getCachedBytes();
+            CKSeekBar.setDefaultThumbLoading(CKSeekBar.THUMB_LOADING_EAGER);
+            new CKSeekBar<Integer>(context);
+
+            assertEquals(heldBytes, ThumbBitmapCache.getCachedBytes());
+        } finally {
+            ThumbBitmapCache.setMaxCachedBytes(maxCachedBytes);
+        }
+    }
+
+    @Test
+    public void lazyWidget_doesNotScaleThumbsBeforeAttach() {
+        Context context = InstrumentationRegistry.getTargetContext();
+        long maxCachedBytes = ThumbBitmapCache.getMaxCachedBytes();
+        // drop every image nobody holds, so that scaling one shows in the cache size
+        ThumbBitmapCache.setMaxCachedBytes(0);
+        ThumbBitmapCache.setMaxCachedBytes(Long.MAX_VALUE);
+        try {
+            long cachedBytes = ThumbBitmapCache.getCachedBytes();
+            CKSeekBar.setDefaultThumbLoading(CKSeekBar.THUMB_LOADING_LAZY);
+            CKSeekBar<Integer> bar = new CKSeekBar<>(context);
+            bar.measure(View.MeasureSpec.makeMeasureSpec(600, View.MeasureSpec.EXACTLY),
+                    View.MeasureSpec.makeMeasureSpec(300, View.MeasureSpec.EXACTLY));
+            bar.layout(0, 0, 600, 300);
+
+            assertEquals(cachedBytes, ThumbBitmapCache.getCachedBytes());
+
+            // the same thumbs are scaled right away when the mode asks for it
+            CKSeekBar.setDefaultThumbLoading(CKSeekBar.THUMB_LOADING_EAGER);
+            new CKSeekBar<Integer>(context);
+            assertTrue(ThumbBitmapCache.getCachedBytes() > cachedBytes);
+        } finally {
+            ThumbBitmapCache.setMaxCachedBytes(maxCachedBytes);
+        }
+    }
+}
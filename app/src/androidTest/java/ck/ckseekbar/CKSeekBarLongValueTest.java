@@ -0,0 +1,62 @@
+package ck.ckseekbar;
+
+import android.content.Context;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that Long selections of {@link CKSeekBar} read back exactly, also for ranges with far more values than 2^32.
+ */
+@RunWith(AndroidJUnit4.class)
+public class CKSeekBarLongValueTest {
+
+    // an hour of nanosecond timestamps, far beyond 2^53 in magnitude
+    private static final long HOUR_START = 1500000000000000000L;
+    private static final long HOUR_NANOS = 3600000000000L;
+    private static final long YEAR_MILLIS = 31536000000L;
+
+    @Test
+    public void nanosecondRange_readsBackExactly() {
+        Context context = InstrumentationRegistry.getTargetContext();
+        CKSeekBar<Long> bar = new CKSeekBar<>(context);
+        bar.setRangeValues(HOUR_START, HOUR_START + HOUR_NANOS);
+
+        bar.setSelectedMinValueLong(HOUR_START + 123456789L);
+        bar.setSelectedMaxValueLong(HOUR_START + HOUR_NANOS - 1L);
+
+        assertEquals(HOUR_START + 123456789L, bar.getSelectedMinValueLong());
+        assertEquals(HOUR_START + HOUR_NANOS - 1L, bar.getSelectedMaxValueLong());
+        assertEquals(Long.valueOf(HOUR_START + HOUR_NANOS - 1L), bar.getSelectedMaxValue());
+    }
+
+    @Test
+    public void pushedLong_readsBackExactly() {
+        Context context = InstrumentationRegistry.getTargetContext();
+        CKSeekBar<Long> bar = new CKSeekBar<>(context);
+        bar.setRangeValues(HOUR_START, HOUR_START + HOUR_NANOS);
+        ValueStream stream = new ValueStream();
+        bar.bindSelectedMaxValue(stream);
+
+        stream.push(HOUR_START + 1234567890123L);
+        // what the bound widget does on its next frame
+        assertTrue(bar.takeStreamValues());
+
+        assertEquals(HOUR_START + 1234567890123L, bar.getSelectedMaxValueLong());
+    }
+
+    @Test
+    public void millisecondRange_readsBackExactly() {
+        Context context = InstrumentationRegistry.getTargetContext();
+        CKSeekBar<Long> bar = new CKSeekBar<>(context);
+        bar.setRangeValues(0L, YEAR_MILLIS);
+
+        bar.setSelectedMaxValueLong(12345678901L);
+
+        assertEquals(12345678901L, bar.getSelectedMaxValueLong());
+    }
+}
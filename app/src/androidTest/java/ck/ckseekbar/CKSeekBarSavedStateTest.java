@@ -0,0 +1,69 @@
+package ck.ckseekbar;
+
+import android.content.Context;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.math.BigDecimal;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that the saved state of {@link CKSeekBar} survives a parcel round trip with exact values.
+ */
+@RunWith(AndroidJUnit4.class)
+public class CKSeekBarSavedStateTest {
+
+    @Test
+    public void longRange_isRestoredExactly() {
+        Context context = InstrumentationRegistry.getTargetContext();
+        // far more values than 2^32, so a rounded selection would show
+        final long rangeMin = Long.MAX_VALUE - (1L << 41);
+        CKSeekBar<Long> saved = new CKSeekBar<>(context);
+        saved.setRangeValues(rangeMin, Long.MAX_VALUE);
+        saved.setSelectedMinValueLong(rangeMin + 123456789013L);
+        saved.setSelectedMaxValueLong(Long.MAX_VALUE - 1L);
+
+        CKSeekBar<Long> restored = new CKSeekBar<>(context);
+        restored.onRestoreInstanceState(parcel(saved.onSaveInstanceState()));
+
+        assertEquals(Long.valueOf(rangeMin), restored.getAbsoluteMinValue());
+        assertEquals(Long.valueOf(Long.MAX_VALUE), restored.getAbsoluteMaxValue());
+        assertEquals(rangeMin + 123456789013L, restored.getSelectedMinValueLong());
+        assertEquals(Long.MAX_VALUE - 1L, restored.getSelectedMaxValueLong());
+    }
+
+    @Test
+    public void bigDecimalRange_isRestoredExactly() {
+        Context context = InstrumentationRegistry.getTargetContext();
+        CKSeekBar<BigDecimal> saved = new CKSeekBar<>(context);
+        saved.setDecimalPlaces(3);
+        saved.setRangeValues(new BigDecimal("0.001"), new BigDecimal("9.999"));
+        saved.setSelectedMinValue(new BigDecimal("1.234"));
+        saved.setSelectedMaxValue(new BigDecimal("5.678"));
+
+        CKSeekBar<BigDecimal> restored = new CKSeekBar<>(context);
+        restored.onRestoreInstanceState(parcel(saved.onSaveInstanceState()));
+
+        assertEquals(3, restored.getDecimalPlaces());
+        assertEquals(new BigDecimal("0.001"), restored.getAbsoluteMinValue());
+        assertEquals(new BigDecimal("1.234"), restored.getSelectedMinValue());
+        assertEquals(new BigDecimal("5.678"), restored.getSelectedMaxValue());
+    }
+
+    private static Parcelable parcel(Parcelable state) {
+        Parcel parcel = Parcel.obtain();
+        try {
+            state.writeToParcel(parcel, 0);
+            parcel.setDataPosition(0);
+            return CKSeekBar.SavedState.CREATOR.createFromParcel(parcel);
+        } finally {
+            parcel.recycle();
+        }
+    }
+}
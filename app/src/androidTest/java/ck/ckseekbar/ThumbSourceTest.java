@@ -0,0 +1,56 @@
+package ck.ckseekbar;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.drawable.BitmapDrawable;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that bitmap resources are decoded straight to the thumb size.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ThumbSourceTest {
+
+    @Test
+    public void ofResource_decodesAtTargetSize() {
+        Resources resources = InstrumentationRegistry.getTargetContext().getResources();
+        ThumbSource source = ThumbSource.ofResource(resources, R.drawable.baseline_cloud_black_48);
+        assertNotNull(source);
+
+        int target = Math.max(source.getWidth(), source.getHeight()) / 2;
+        Bitmap bitmap = source.createScaled(target);
+
+        assertEquals(target, Math.max(bitmap.getWidth(), bitmap.getHeight()));
+    }
+
+    @Test
+    public void ofResource_isDrawnAtDecodedSize() {
+        Resources resources = InstrumentationRegistry.getTargetContext().getResources();
+        ThumbSource source = ThumbSource.ofResource(resources, R.drawable.baseline_cloud_black_48);
+        assertNotNull(source);
+
+        int target = Math.max(source.getWidth(), source.getHeight()) / 2;
+        Bitmap bitmap = source.createScaled(target);
+        // a canvas scales bitmaps from their density to its own, view canvases have the display density
+        Canvas canvas = new Canvas(Bitmap.createBitmap(1, 1, Bitmap.Config.ARGB_8888));
+        canvas.setDensity(resources.getDisplayMetrics().densityDpi);
+
+        assertEquals(bitmap.getWidth(), bitmap.getScaledWidth(canvas));
+        assertEquals(bitmap.getHeight(), bitmap.getScaledHeight(canvas));
+        assertEquals(bitmap.getWidth(), new BitmapDrawable(resources, bitmap).getIntrinsicWidth());
+    }
+
+    @Test
+    public void ofResource_rejectsXmlDrawables() {
+        Resources resources = InstrumentationRegistry.getTargetContext().getResources();
+
+        assertNull(ThumbSource.ofResource(resources, R.drawable.ic_launcher_background));
+    }
+}
@@ -0,0 +1,482 @@
+package ck.ckseekbar;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.drawable.Drawable;
+import android.support.v4.content.ContextCompat;
+import android.support.v7.widget.AppCompatImageView;
+import android.util.AttributeSet;
+import android.util.TypedValue;
+import android.view.MotionEvent;
+import android.view.ViewParent;
+
+import java.util.Arrays;
+
+/**
+ * Widget that lets users place any number of thumbs on a numerical range, e.g. the split points of a timeline.
+ * <br>
+ * Thumbs keep their order: a thumb can be dragged up to its neighbours but not past them. Thumb values are
+ * kept in a sorted primitive array, touches find their thumb with a binary search and only the area of a moved
+ * thumb is redrawn.
+ */
+public class CKMultiSeekBar extends AppCompatImageView {
+
+    public static final double DEFAULT_MINIMUM = 0d;
+    public static final double DEFAULT_MAXIMUM = 100d;
+    public static final int DEFAULT_THUMB_COUNT = 2;
+    private static final int INITIAL_PADDING_IN_DP = 8;
+
+    /**
+     * Callback listener interface to notify about changed thumb values.
+     */
+    public interface OnThumbValueChangeListener {
+        /**
+         * Called for each change of a single thumb.
+         *
+         * @param bar   The widget.
+         * @param index The index of the changed thumb, thumbs are ordered by value.
+         * @param value The new value of the thumb.
+         * @param aInUse True while the thumb is being dragged.
+         */
+        void onThumbValueChanged(CKMultiSeekBar bar, int index, double value, boolean aInUse);
+    }
+
+    private final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private int mTrackColor;
+    private float mLineHeight = 15.f;
+
+    // a bitmap thumb is drawn from the shared cache, any other drawable as it is
+    private ThumbSource mThumbSource;
+    private Drawable mThumbDrawable;
+    private Bitmap thumbImage;
+    // true while the widget holds a reference on thumbImage in the shared cache
+    private boolean mThumbCached;
+    private int mThumbMaxResolution;
+    private float thumbWidth;
+    private float thumbHalfWidth;
+    private float mThumbHeight;
+    private float padding;
+
+    private double absoluteMinValuePrim = DEFAULT_MINIMUM;
+    private double absoluteMaxValuePrim = DEFAULT_MAXIMUM;
+    // normalized thumb positions in ascending order
+    private double[] mThumbs = new double[0];
+    private int mPressedThumb = -1;
+    // thumbs on top of the pressed one, the direction of the first move decides which of them is dragged
+    private int mStackFirst = -1;
+    private int mStackLast = -1;
+    // the pointer that drags the pressed thumb, other pointers of the gesture are ignored
+    private int mActivePointerId = MotionEvent.INVALID_POINTER_ID;
+
+    private OnThumbValueChangeListener listener;
+
+    public CKMultiSeekBar(Context context) {
+        super(context);
+        init(context, null);
+    }
+
+    public CKMultiSeekBar(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        init(context, attrs);
+    }
+
+    public CKMultiSeekBar(Context context, AttributeSet attrs, int defStyle) {
+        super(context, attrs, defStyle);
+        init(context, attrs);
+    }
+
+    private void init(Context context, AttributeSet attrs) {
+        mTrackColor = ContextCompat.getColor(context, R.color.ckred);
+
+        int thumbCount = DEFAULT_THUMB_COUNT;
+
+        if (attrs != null) {
+            TypedArray a = getContext().obtainStyledAttributes(attrs, R.styleable.CKMultiSeekBar, 0, 0);
+            absoluteMinValuePrim = a.getFloat(R.styleable.CKMultiSeekBar_absoluteMinValue, (float) DEFAULT_MINIMUM);
+            absoluteMaxValuePrim = a.getFloat(R.styleable.CKMultiSeekBar_absoluteMaxValue, (float) DEFAULT_MAXIMUM);
+            thumbCount = a.getInt(R.styleable.CKMultiSeekBar_thumbCount, DEFAULT_THUMB_COUNT);
+            mLineHeight = a.getFloat(R.styleable.CKMultiSeekBar_lineHeight, 15.f);
+            int resId = a.getResourceId(R.styleable.CKMultiSeekBar_thumbDraw, 0);
+            if (resId != 0) {
+                mThumbSource = ThumbSource.ofResource(getResources(), resId);
+                if (mThumbSource == null) {
+                    mThumbDrawable = a.getDrawable(R.styleable.CKMultiSeekBar_thumbDraw);
+                }
+            }
+            a.recycle();
+        }
+
+        if (mThumbSource == null && mThumbDrawable == null) {
+            mThumbSource = ThumbSource.ofResource(getResources(), R.drawable.baseline_cloud_black_48);
+        }
+
+        mThumbMaxResolution = PixelUtil.dpToPxByDensity(context, CKSeekBar.THUMB_SIZE_IN_DP);
+        int width = mThumbSource != null ? mThumbSource.getWidth() : mThumbDrawable.getIntrinsicWidth();
+        int height = mThumbSource != null ? mThumbSource.getHeight() : mThumbDrawable.getIntrinsicHeight();
+        if (width <= 0 || height <= 0) {
+            width = mThumbMaxResolution;
+            height = mThumbMaxResolution;
+        }
+        thumbWidth = PixelUtil.scaledWidth(width, height, mThumbMaxResolution);
+        mThumbHeight = PixelUtil.scaledHeight(width, height, mThumbMaxResolution);
+        thumbHalfWidth = 0.5f * thumbWidth;
+        if (mThumbSource != null) {
+            // scaled right away, but only held while attached: a widget that is never attached never gives it back
+            thumbImage = ThumbBitmapCache.acquire(mThumbSource, mThumbMaxResolution);
+            ThumbBitmapCache.release(thumbImage);
+        }
+
+        padding = PixelUtil.dpToPx(context, INITIAL_PADDING_IN_DP) + thumbHalfWidth;
+
+        paint.setStyle(Paint.Style.FILL_AND_STROKE);
+        paint.setStrokeWidth(mLineHeight);
+
+        // spread the initial thumbs evenly
+        mThumbs = new double[Math.max(0, thumbCount)];
+        for (int i = 0; i < mThumbs.length; i++) {
+            mThumbs[i] = (i + 1d) / (mThumbs.length + 1d);
+        }
+
+        setFocusable(true);
+        setFocusableInTouchMode(true);
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        if (!mThumbCached && mThumbSource != null) {
+            thumbImage = ThumbBitmapCache.acquire(mThumbSource, mThumbMaxResolution);
+            mThumbCached = true;
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        if (mThumbCached) {
+            // the image stays usable, it is only no longer protected from eviction
+            ThumbBitmapCache.release(thumbImage);
+            mThumbCached = false;
+        }
+        super.onDetachedFromWindow();
+    }
+
+    /**
+     * Sets the range the thumb values are chosen from. Thumbs keep their relative positions.
+     *
+     * @param minValue The minimum value of the range.
+     * @param maxValue The maximum value of the range.
+     */
+    public void setRangeValues(double minValue, double maxValue) {
+        absoluteMinValuePrim = minValue;
+        absoluteMaxValuePrim = maxValue;
+        invalidate();
+    }
+
+    public double getAbsoluteMinValue() {
+        return absoluteMinValuePrim;
+    }
+
+    public double getAbsoluteMaxValue() {
+        return absoluteMaxValuePrim;
+    }
+
+    /**
+     * Replaces all thumbs. The values are sorted and clamped into the range, so the thumb count is the
+     * number of given values.
+     *
+     * @param values The thumb values.
+     */
+    public void setThumbValues(double... values) {
+        double[] thumbs = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            thumbs[i] = Math.max(0d, Math.min(1d, valueToNormalized(values[i])));
+        }
+        Arrays.sort(thumbs);
+        mThumbs = thumbs;
+        mPressedThumb = -1;
+        mStackFirst = -1;
+        invalidate();
+    }
+
+    /**
+     * Returns the values of all thumbs in ascending order.
+     *
+     * @return A new array holding the thumb values.
+     */
+    public double[] getThumbValues() {
+        double[] values = new double[mThumbs.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = normalizedToValue(mThumbs[i]);
+        }
+        return values;
+    }
+
+    public int getThumbCount() {
+        return mThumbs.length;
+    }
+
+    public double getThumbValue(int index) {
+        return normalizedToValue(mThumbs[index]);
+    }
+
+    /**
+     * Moves a single thumb. The value is clamped between the values of the neighbouring thumbs.
+     *
+     * @param index The index of the thumb.
+     * @param value The new value.
+     */
+    public void setThumbValue(int index, double value) {
+        if (setNormalizedThumb(index, valueToNormalized(value))) {
+            notifyListener(index, false);
+        }
+    }
+
+    /**
+     * Registers given listener callback to notify about changed thumb values.
+     *
+     * @param listener The listener to notify about changed thumb values.
+     */
+    public void setOnThumbValueChangeListener(OnThumbValueChangeListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Moves a thumb to the given normalized position, kept between its neighbours, and redraws the area it
+     * left and entered.
+     *
+     * @return true if the thumb moved.
+     */
+    private boolean setNormalizedThumb(int index, double normalized) {
+        double old = mThumbs[index];
+        if (!moveThumb(index, normalized)) {
+            return false;
+        }
+        invalidateThumbs(old, mThumbs[index]);
+        return true;
+    }
+
+    /**
+     * Moves a thumb to the given normalized position, kept between its neighbours, without redrawing.
+     *
+     * @return true if the thumb moved.
+     */
+    private boolean moveThumb(int index, double normalized) {
+        double low = index > 0 ? mThumbs[index - 1] : 0d;
+        double high = index < mThumbs.length - 1 ? mThumbs[index + 1] : 1d;
+        double clamped = Math.max(low, Math.min(high, normalized));
+        if (clamped == mThumbs[index]) {
+            return false;
+        }
+        mThumbs[index] = clamped;
+        return true;
+    }
+
+    /**
+     * Redraws the thumb area between the given normalized positions.
+     */
+    private void invalidateThumbs(double from, double to) {
+        float fromX = normalizedToScreen(from);
+        float toX = normalizedToScreen(to);
+        invalidate((int) (Math.min(fromX, toX) - thumbHalfWidth) - 1,
+                (int) getThumbTop() - 1,
+                (int) Math.ceil(Math.max(fromX, toX) + thumbHalfWidth) + 1,
+                (int) Math.ceil(getThumbTop() + mThumbHeight) + 1);
+    }
+
+    private void notifyListener(int index, boolean inUse) {
+        if (listener != null) {
+            listener.onThumbValueChanged(this, index, getThumbValue(index), inUse);
+        }
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if (!isEnabled() || mThumbs.length == 0) {
+            return false;
+        }
+
+        switch (event.getAction() & MotionEvent.ACTION_MASK) {
+            case MotionEvent.ACTION_DOWN:
+                mActivePointerId = event.getPointerId(0);
+                mPressedThumb = evalPressedThumb(event.getX(0));
+                if (mPressedThumb < 0) {
+                    return super.onTouchEvent(event);
+                }
+                findStack(mPressedThumb);
+                setPressed(true);
+                invalidate();
+                ViewParent parent = getParent();
+                if (parent != null) {
+                    parent.requestDisallowInterceptTouchEvent(true);
+                }
+                trackTouchEvent(event);
+                break;
+            case MotionEvent.ACTION_MOVE:
+                if (mPressedThumb >= 0) {
+                    trackTouchEvent(event);
+                }
+                break;
+            case MotionEvent.ACTION_UP:
+            case MotionEvent.ACTION_CANCEL:
+                if (mPressedThumb >= 0) {
+                    if (event.getActionMasked() == MotionEvent.ACTION_UP) {
+                        trackTouchEvent(event);
+                    }
+                    notifyListener(mPressedThumb, false);
+                    mPressedThumb = -1;
+                    mStackFirst = -1;
+                    setPressed(false);
+                }
+                mActivePointerId = MotionEvent.INVALID_POINTER_ID;
+                invalidate();
+                break;
+            case MotionEvent.ACTION_POINTER_DOWN:
+                // the latest finger takes over the pressed thumb
+                mActivePointerId = event.getPointerId(event.getActionIndex());
+                break;
+            case MotionEvent.ACTION_POINTER_UP:
+                onSecondaryPointerUp(event);
+                break;
+        }
+        return true;
+    }
+
+    private void onSecondaryPointerUp(MotionEvent event) {
+        final int pointerIndex = event.getActionIndex();
+        if (event.getPointerId(pointerIndex) == mActivePointerId) {
+            // the active finger was lifted, another one still on the screen takes over
+            mActivePointerId = event.getPointerId(pointerIndex == 0 ? 1 : 0);
+        }
+    }
+
+    private void trackTouchEvent(MotionEvent event) {
+        final int pointerIndex = event.findPointerIndex(mActivePointerId);
+        if (pointerIndex < 0) {
+            return;
+        }
+        if (mStackFirst >= 0) {
+            final float x = event.getHistorySize() > 0
+                    ? event.getHistoricalX(pointerIndex, 0) : event.getX(pointerIndex);
+            final float stackX = normalizedToScreen(mThumbs[mStackFirst]);
+            if (x == stackX) {
+                // no direction yet
+                return;
+            }
+            // the last thumb of the stack is the only one that can move right, the first one the only one to the left
+            mPressedThumb = x > stackX ? mStackLast : mStackFirst;
+            mStackFirst = -1;
+        }
+        int index = mPressedThumb;
+        boolean moved = false;
+        // every position the thumb passes is redrawn once for the whole batch
+        double low = mThumbs[index];
+        double high = low;
+        for (int h = 0; h < event.getHistorySize(); h++) {
+            if (moveThumb(index, screenToNormalized(event.getHistoricalX(pointerIndex, h)))) {
+                moved = true;
+                low = Math.min(low, mThumbs[index]);
+                high = Math.max(high, mThumbs[index]);
+            }
+        }
+        if (moveThumb(index, screenToNormalized(event.getX(pointerIndex)))) {
+            moved = true;
+            low = Math.min(low, mThumbs[index]);
+            high = Math.max(high, mThumbs[index]);
+        }
+        if (moved) {
+            invalidateThumbs(low, high);
+            notifyListener(index, true);
+        }
+    }
+
+    /**
+     * Remembers the thumbs lying on top of the given one, if there are any.
+     */
+    private void findStack(int index) {
+        int first = index;
+        int last = index;
+        while (first > 0 && mThumbs[first - 1] == mThumbs[index]) {
+            first--;
+        }
+        while (last < mThumbs.length - 1 && mThumbs[last + 1] == mThumbs[index]) {
+            last++;
+        }
+        mStackFirst = first < last ? first : -1;
+        mStackLast = last;
+    }
+
+    /**
+     * Finds the thumb under the given screen position with a binary search over the sorted thumbs.
+     *
+     * @return The index of the touched thumb, or -1 if no thumb is close enough.
+     */
+    private int evalPressedThumb(float touchX) {
+        int index = RangeMath.nearestThumb(mThumbs, mThumbs.length, screenToNormalized(touchX));
+        return Math.abs(touchX - normalizedToScreen(mThumbs[index])) <= thumbWidth ? index : -1;
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int width = 200;
+        if (MeasureSpec.UNSPECIFIED != MeasureSpec.getMode(widthMeasureSpec)) {
+            width = MeasureSpec.getSize(widthMeasureSpec);
+        }
+
+        int height = (int) mThumbHeight + (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 16, getResources().getDisplayMetrics());
+        if (MeasureSpec.UNSPECIFIED != MeasureSpec.getMode(heightMeasureSpec)) {
+            height = Math.min(height, MeasureSpec.getSize(heightMeasureSpec));
+        }
+        setMeasuredDimension(width, height);
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+
+        float centerY = 0.5f * getHeight();
+        paint.setColor(mTrackColor);
+        canvas.drawLine(padding, centerY, getWidth() - padding, centerY, paint);
+
+        float top = getThumbTop();
+        float bottom = top + mThumbHeight;
+        for (int i = 0; i < mThumbs.length; i++) {
+            float left = normalizedToScreen(mThumbs[i]) - thumbHalfWidth;
+            // thumbs outside the invalidated area are left alone
+            if (canvas.quickReject(left, top, left + thumbWidth, bottom, Canvas.EdgeType.AA)) {
+                continue;
+            }
+            if (mThumbDrawable != null) {
+                mThumbDrawable.setBounds((int) left, (int) top, (int) (left + thumbWidth), (int) bottom);
+                mThumbDrawable.setState(i == mPressedThumb ? PRESSED_STATE_SET : EMPTY_STATE_SET);
+                mThumbDrawable.draw(canvas);
+            } else if (thumbImage == null) {
+                canvas.drawCircle(left + thumbHalfWidth, centerY, 0.5f * mThumbHeight, paint);
+            } else {
+                canvas.drawBitmap(thumbImage, left, top, paint);
+            }
+        }
+    }
+
+    private float getThumbTop() {
+        return 0.5f * (getHeight() - mThumbHeight);
+    }
+
+    private double normalizedToValue(double normalized) {
+        return absoluteMinValuePrim + normalized * (absoluteMaxValuePrim - absoluteMinValuePrim);
+    }
+
+    private double valueToNormalized(double value) {
+        return RangeMath.valueToNormalized(value, absoluteMinValuePrim, absoluteMaxValuePrim);
+    }
+
+    private float normalizedToScreen(double normalized) {
+        return RangeMath.normalizedToScreen(normalized, padding, getWidth());
+    }
+
+    private double screenToNormalized(float screenCoord) {
+        return RangeMath.screenToNormalized(screenCoord, padding, getWidth());
+    }
+}
@@ -1,26 +1,36 @@
 package ck.ckseekbar;
 
-import java.math.BigDecimal;
+import android.animation.TimeInterpolator;
 import android.content.Context;
 import android.content.res.TypedArray;
 import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
+import android.graphics.Picture;
+import android.graphics.Rect;
 import android.graphics.RectF;
 import android.graphics.drawable.BitmapDrawable;
 import android.graphics.drawable.Drawable;
-import android.os.Bundle;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Parcel;
+import android.os.SystemClock;
 import android.os.Parcelable;
 import android.support.v4.content.ContextCompat;
+import android.support.v4.os.TraceCompat;
 import android.support.v7.widget.AppCompatImageView;
 import android.util.AttributeSet;
 import android.util.TypedValue;
+import android.view.Choreographer;
 import android.view.MotionEvent;
 import android.view.ViewConfiguration;
 
-import static ck.ckseekbar.PixelUtil.pxToDp;
-import static ck.ckseekbar.PixelUtil.resizeBitmap;
+import java.math.BigDecimal;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Widget that lets users select a minimum and maximum value on a given numerical range.
@@ -42,16 +52,54 @@ public class CKSeekBar<T extends Number> extends AppCompatImageView {
     public static final Integer DEFAULT_MAXIMUM = 100;
     public static final int HEIGHT_IN_DP = 30;
     public static final int TEXT_LATERAL_PADDING_IN_DP = 3;
+    public static final int THUMB_SIZE_IN_DP = 48;
+    public static final int MAX_PREFORMATTED_LABELS = 512;
     private static final int INITIAL_PADDING_IN_DP = 8;
+    // cached, values() copies the array on every call
+    private static final NumberType[] NUMBER_TYPES = NumberType.values();
+
+    /**
+     * Thumb images are scaled in the constructor.
+     */
+    public static final int THUMB_LOADING_EAGER = 0;
+    /**
+     * Thumb images are scaled when the widget gets its size.
+     */
+    public static final int THUMB_LOADING_LAZY = 1;
+    /**
+     * Thumb images are scaled on a background thread, a placeholder is drawn in the meantime.
+     */
+    public static final int THUMB_LOADING_BACKGROUND = 2;
+
+    private static int sDefaultThumbLoading = THUMB_LOADING_EAGER;
+    private static Executor sThumbExecutor;
+    private static final Handler sMainHandler = new Handler(Looper.getMainLooper());
 
     private final int LINE_HEIGHT_IN_DP = 1;
     private final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint mTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
     private Bitmap thumbImage;
     private Bitmap thumbPressedImage;
-    private Bitmap thumbDisabledImage;
 
     private Bitmap thumbImageRight;
+    // thumbs as given, the pressed one is optional
+    private Drawable mLeftThumbDrawable;
+    private Drawable mRightThumbDrawable;
+    private Drawable mPressedThumbDrawable;
+    // unscaled images of bitmap thumbs, scaled copies are shared through ThumbBitmapCache while attached. Null for
+    // other drawables, those are drawn directly at the thumb size.
+    private ThumbSource mLeftThumbSource;
+    private ThumbSource mRightThumbSource;
+    private ThumbSource mPressedThumbSource;
+    private int mThumbMaxResolution;
+    private int mThumbHeight;
+    private boolean mThumbsCached;
+    private int mThumbLoading;
+    private boolean mThumbsLoading;
+    // incremented whenever a pending background load has to be dropped
+    private int mThumbRequest;
     private int mLineHighlightColor = Color.DKGRAY;
+    private int mTrackColor;
     private boolean mLineHighlight = true;
     private float mLineHeight = 15.f;
 
@@ -63,10 +111,61 @@ public class CKSeekBar<T extends Number> extends AppCompatImageView {
     private T absoluteMinValue, absoluteMaxValue;
     private NumberType numberType;
     private double absoluteMinValuePrim, absoluteMaxValuePrim;
-    private double normalizedMinValue = 0d;
-    private double normalizedMaxValue = 1d;
+    // exact values for integral and BigDecimal ranges, the prim values above are only approximations of those
+    private final FixedPointRange mFixedPoint = new FixedPointRange();
+    private double mRoundingFactor = 100d;
+    private final StepSnapper mStepSnapper = new StepSnapper();
+    // selected values, possibly shared with other views, and the boxed values of the current selection
+    private RangeModel mModel = new RangeModel();
+    private volatile State mState = new State(mModel.getSelection());
+    private final RangeModel.OnRangeModelChangeListener mModelListener = new RangeModel.OnRangeModelChangeListener() {
+        @Override
+        public void onRangeModelChanged(RangeModel model, double normalizedMin, double normalizedMax) {
+            // changed by another view or thread
+            scheduleInvalidate();
+        }
+    };
+    private final AtomicBoolean mInvalidatePending = new AtomicBoolean();
+    private final Runnable mInvalidateRunnable = new Runnable() {
+        @Override
+        public void run() {
+            invalidateChangedRegion();
+        }
+    };
+
+    // what the last onDraw showed, to invalidate only the area a value change touches
+    private double mDrawnMin = Double.NaN;
+    private double mDrawnMax = Double.NaN;
+    private float mDrawnMinLeft, mDrawnMinRight;
+    private float mDrawnMaxLeft, mDrawnMaxRight;
+    private final Rect mDirtyRect = new Rect();
+
+    private boolean mShowInvalidatedRegions;
+    private Paint mDebugPaint;
+    private final Rect mDebugRect = new Rect();
     private Thumb pressedThumb = null;
     private boolean notifyWhileDragging = false;
+
+    /**
+     * Notify the listeners on every move event while dragging.
+     */
+    public static final long NOTIFY_INTERVAL_NONE = -1;
+    /**
+     * Notify the listeners at most once per frame while dragging.
+     */
+    public static final long NOTIFY_INTERVAL_FRAME = 0;
+
+    private long mNotifyInterval = NOTIFY_INTERVAL_NONE;
+    private boolean mDragNotificationScheduled;
+    private long mLastNotifyTime;
+    private double mLastNotifiedMin = Double.NaN;
+    private double mLastNotifiedMax = Double.NaN;
+    private final Choreographer.FrameCallback mDragNotificationCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            dispatchDragNotification();
+        }
+    };
     private boolean mOnOff = true;
 
     public boolean isOnOff() {
@@ -86,17 +185,105 @@ public class CKSeekBar<T extends Number> extends AppCompatImageView {
         this.mLineHighlightColor = mLineHighlightColor;
     }
 
+    public int getTrackColor() {
+        return mTrackColor;
+    }
+
+    /**
+     * Sets the color of the seek bar background line. The widget will be invalidated and redrawn.
+     *
+     * @param aTrackColor The color of the background line.
+     */
+    public void setTrackColor(int aTrackColor) {
+        this.mTrackColor = aTrackColor;
+        invalidateTrackLayer();
+    }
+
+    /**
+     * Sets the colors of the histogram bars outside and inside the selected range.
+     *
+     * @param aColor          The color of bars outside the selected range.
+     * @param aHighlightColor The color of bars inside the selected range.
+     */
+    public void setHistogramColors(int aColor, int aHighlightColor) {
+        mHistogramPaint.setColor(aColor);
+        mHistogramHighlightPaint.setColor(aHighlightColor);
+        invalidate();
+    }
+
+    /**
+     * Adds data values to the histogram drawn behind the track. Values are merged into one bucket per pixel of the
+     * track and are not kept, so they can be streamed in batches of any size. Values outside the range are ignored.
+     * May be called from any thread.
+     *
+     * @param values The array holding the values.
+     * @param offset The index of the first value to add.
+     * @param count  The number of values to add.
+     */
+    public void addHistogramValues(double[] values, int offset, int count) {
+        mHistogram.add(values, offset, count);
+        postInvalidateOnAnimation();
+    }
+
+    /**
+     * Removes all values from the histogram. May be called from any thread.
+     */
+    public void clearHistogram() {
+        mHistogram.clear();
+        postInvalidateOnAnimation();
+    }
+
+    /**
+     * Returns the number of values shown in the histogram.
+     */
+    public long getHistogramValueCount() {
+        return mHistogram.getTotalCount();
+    }
+
+    public int getTextColor() {
+        return mTextPaint.getColor();
+    }
+
+    /**
+     * Sets the color of the value labels. The widget will be invalidated and redrawn.
+     *
+     * @param aTextColor The color of the value labels.
+     */
+    public void setTextColor(int aTextColor) {
+        mTextPaint.setColor(aTextColor);
+        invalidate();
+    }
+
     public void setOnOff(boolean aOnOff, Drawable aDraw) {
         setOnOff(aOnOff, aDraw, aDraw);
     }
 
     public void setOnOff(boolean aOnOff, Drawable aRightDraw, Drawable aLeftDraw) {
+        // keeps the current pressed thumb
+        setOnOff(aOnOff, aRightDraw, aLeftDraw, mPressedThumbDrawable, mPressedThumbSource);
+    }
+
+    /**
+     * Switches the highlight color and replaces the thumbs. Any drawable can be used, a {@link android.graphics.drawable.StateListDrawable} shows
+     * its pressed state while the thumb is dragged.
+     *
+     * @param aOnOff       Whether the widget is shown as switched on.
+     * @param aRightDraw   The maximum thumb.
+     * @param aLeftDraw    The minimum thumb, its size is used for both thumbs.
+     * @param aPressedDraw The thumb shown while dragging, or null to show the thumb's own pressed state.
+     */
+    public void setOnOff(boolean aOnOff, Drawable aRightDraw, Drawable aLeftDraw, Drawable aPressedDraw) {
+        setOnOff(aOnOff, aRightDraw, aLeftDraw, aPressedDraw, ThumbSource.of(aPressedDraw));
+    }
+
+    private void setOnOff(boolean aOnOff, Drawable aRightDraw, Drawable aLeftDraw, Drawable aPressedDraw,
+                          ThumbSource aPressedSource) {
         this.mOnOff = aOnOff;
 
-        thumbImageRight = ((BitmapDrawable) aRightDraw).getBitmap();
-        thumbImage = ((BitmapDrawable) aLeftDraw).getBitmap();
-        thumbPressedImage = ((BitmapDrawable) aLeftDraw).getBitmap();
-        thumbDisabledImage = ((BitmapDrawable) aLeftDraw).getBitmap();
+        setThumbs(aLeftDraw, ThumbSource.of(aLeftDraw), aRightDraw, ThumbSource.of(aRightDraw),
+                aPressedDraw, aPressedSource);
+        updateThumbLayout();
+        loadThumbs();
 
         if(mOnOff){
             mLineHighlightColor = getResources().getColor(R.color.colorPrimaryDark);
@@ -108,6 +295,12 @@ public class CKSeekBar<T extends Number> extends AppCompatImageView {
     }
 
     private OnRangeSeekBarChangeListener<T> listener;
+    private OnRangeSeekBarPrimitiveChangeListener primitiveListener;
+    // the group this widget is linked to, set by the group
+    CKSeekBarGroup mGroup;
+
+    private CKSeekBarMetrics mMetrics;
+    private long mLastEventTime;
 
     public static final int DEFAULT_COLOR = Color.argb(0xFF, 0x33, 0xB5, 0xE5);
 
@@ -124,12 +317,72 @@ public class CKSeekBar<T extends Number> extends AppCompatImageView {
     private int mScaledTouchSlop;
 
     private boolean mIsDragging;
+    private boolean mAttached;
+
+    // animation driven by the shared SeekBarAnimator, in normalized values
+    private boolean mAnimating;
+    private double mAnimFromMin, mAnimFromMax;
+    private double mAnimToMin, mAnimToMax;
+    private long mAnimStartNanos;
+    private long mAnimDurationNanos;
+    private TimeInterpolator mAnimInterpolator;
+
+    // values pushed by producers, taken at most once per frame
+    private ValueStream mMinStream;
+    private ValueStream mMaxStream;
+    private final AtomicBoolean mStreamFramePending = new AtomicBoolean();
+    private final Runnable mStreamWakeup = new Runnable() {
+        @Override
+        public void run() {
+            scheduleStreamFrame();
+        }
+    };
+    private final Runnable mConsumeStreamsRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mStreamFramePending.set(false);
+            consumeStreams();
+        }
+    };
 
     private int mTextOffset;
     private int mTextSize;
     private int mDistanceToTop;
+    private int mTextLateralPadding;
+    private float mMinMaxLabelSize;
     private RectF mRect;
 
+    // the background line only changes with size or style, so it is recorded once and replayed every frame
+    private Picture mTrackPicture;
+    private Bitmap mTrackBitmap;
+    private Canvas mTrackCanvas;
+    private boolean mTrackLayerValid;
+    private boolean mTrackLayerIsBitmap;
+    private int mTrackLayerTop;
+
+    // distribution of the data values, drawn behind the track with one vertical line per bucket
+    private final ValueHistogram mHistogram = new ValueHistogram(0d, 1d, ValueHistogram.DEFAULT_BUCKET_COUNT);
+    private final Paint mHistogramPaint = new Paint();
+    private final Paint mHistogramHighlightPaint = new Paint();
+    private float[] mHistogramLines = new float[0];
+    private float[] mHistogramHighlightLines = new float[0];
+    private int mHistogramLineCount;
+    private int mHistogramHighlightLineCount;
+    // what the histogram lines were built for
+    private int mHistogramLinesVersion = -1;
+    private double mHistogramLinesMin = Double.NaN;
+    private double mHistogramLinesMax = Double.NaN;
+
+    // value labels, looked up only when the normalized value they were built for changes
+    private LabelFormatter mLabelFormatter;
+    private final LabelCache mLabelCache = new LabelCache();
+    private final LabelCache.Label mMinLabel = new LabelCache.Label();
+    private final LabelCache.Label mMaxLabel = new LabelCache.Label();
+    private float mMinTextWidth;
+    private float mMaxTextWidth;
+    private double mMinTextNormalized = Double.NaN;
+    private double mMaxTextNormalized = Double.NaN;
+
     private static final int DEFAULT_TEXT_SIZE_IN_DP = 14;
     private static final int DEFAULT_TEXT_DISTANCE_TO_BUTTON_IN_DP = 8;
     private static final int DEFAULT_TEXT_DISTANCE_TO_TOP_IN_DP = 8;
@@ -167,6 +420,15 @@ public class CKSeekBar<T extends Number> extends AppCompatImageView {
     private void init(Context context, AttributeSet attrs) {
 
         mLineHighlightColor = getResources().getColor(R.color.colorPrimaryDark);
+        mTrackColor = getResources().getColor(R.color.ckred);
+
+        Drawable leftDrawble = null;
+        Drawable rightDrawble = null;
+        Drawable pressedDrawable = null;
+        ThumbSource leftSource = null;
+        ThumbSource rightSource = null;
+        ThumbSource pressedSource = null;
+        mThumbLoading = sDefaultThumbLoading;
 
         if (attrs == null) {
             setRangeToDefaultValues();
@@ -179,33 +441,37 @@ public class CKSeekBar<T extends Number> extends AppCompatImageView {
             mLineHighlight = a.getBoolean(R.styleable.CKSeekBar_lineHighlight, true);
             mLineHeight = a.getFloat(R.styleable.CKSeekBar_lineHeight, 15.f);
 
-            Drawable leftDrawble = a.getDrawable(R.styleable.CKSeekBar_leftDraw);
-            Drawable rightDrawble = a.getDrawable(R.styleable.CKSeekBar_rightDraw);
+            mThumbLoading = a.getInt(R.styleable.CKSeekBar_thumbLoading, mThumbLoading);
 
-            if(leftDrawble == null){
-                leftDrawble = getContext().getResources().getDrawable(R.drawable.baseline_cloud_black_48);
+            // bitmap resources are decoded later at the thumb size, other drawables are loaded as they are
+            leftSource = thumbSourceOf(a, R.styleable.CKSeekBar_leftDraw);
+            if (leftSource == null) {
+                leftDrawble = a.getDrawable(R.styleable.CKSeekBar_leftDraw);
             }
-
-            if(rightDrawble == null){
-                rightDrawble = getContext().getResources().getDrawable(R.drawable.baseline_cloud_black_48);
+            rightSource = thumbSourceOf(a, R.styleable.CKSeekBar_rightDraw);
+            if (rightSource == null) {
+                rightDrawble = a.getDrawable(R.styleable.CKSeekBar_rightDraw);
+            }
+            pressedSource = thumbSourceOf(a, R.styleable.CKSeekBar_pressedtDraw);
+            if (pressedSource == null) {
+                pressedDrawable = a.getDrawable(R.styleable.CKSeekBar_pressedtDraw);
             }
 
+            a.recycle();
+        }
 
-            thumbImage = resizeBitmap(((BitmapDrawable) leftDrawble).getBitmap(),pxToDp(getContext(), 300));
-            thumbPressedImage = resizeBitmap(((BitmapDrawable) leftDrawble).getBitmap(),pxToDp(getContext(), 300));
-            thumbDisabledImage = resizeBitmap(((BitmapDrawable) leftDrawble).getBitmap(),pxToDp(getContext(), 300));
-
-            thumbImageRight = resizeBitmap(((BitmapDrawable) rightDrawble).getBitmap(),pxToDp(getContext(), 300));
-
-
-            thumbWidth = thumbImage.getWidth();
-
-            thumbHalfWidth = (thumbWidth * 1.1f);
-            thumbHalfHeight = 0.5f * thumbImage.getHeight();
+        if(leftDrawble == null && leftSource == null){
+            leftSource = ThumbSource.ofResource(getResources(), R.drawable.baseline_cloud_black_48);
+        }
 
-            a.recycle();
+        if(rightDrawble == null && rightSource == null){
+            rightSource = ThumbSource.ofResource(getResources(), R.drawable.baseline_cloud_black_48);
         }
 
+        mThumbMaxResolution = PixelUtil.dpToPxByDensity(context, THUMB_SIZE_IN_DP);
+        setThumbs(leftDrawble, leftSource, rightDrawble, rightSource, pressedDrawable, pressedSource);
+        loadThumbs();
+
         setValuePrimAndNumberType();
 
         INITIAL_PADDING = PixelUtil.dpToPx(context, INITIAL_PADDING_IN_DP);
@@ -217,6 +483,22 @@ public class CKSeekBar<T extends Number> extends AppCompatImageView {
         mTextOffset = this.mTextSize + PixelUtil.dpToPx(context,
                 DEFAULT_TEXT_DISTANCE_TO_BUTTON_IN_DP) + this.mDistanceToTop;
 
+        // give text a bit more space here so it doesn't get cut off
+        mTextLateralPadding = PixelUtil.dpToPx(context, TEXT_LATERAL_PADDING_IN_DP);
+
+        mTextPaint.setTextSize(mTextSize);
+        mTextPaint.setColor(Color.BLACK);
+
+        // the min and max labels are blank, so their width only depends on the paint
+        mMinMaxLabelSize = paint.measureText("  ");
+        padding = INITIAL_PADDING + mMinMaxLabelSize + thumbHalfWidth;
+
+        paint.setStyle(Paint.Style.FILL_AND_STROKE);
+        paint.setStrokeWidth(mLineHeight);
+
+        mHistogramPaint.setColor(Color.LTGRAY);
+        mHistogramHighlightPaint.setColor(Color.GRAY);
+
         float lineHeight = PixelUtil.dpToPx(context, LINE_HEIGHT_IN_DP);
 
         mRect = new RectF(padding,
@@ -231,6 +513,268 @@ public class CKSeekBar<T extends Number> extends AppCompatImageView {
     }
 
 
+    /**
+     * Returns the source of a thumb attribute if it is a bitmap resource.
+     */
+    private ThumbSource thumbSourceOf(TypedArray a, int attribute) {
+        int resId = a.getResourceId(attribute, 0);
+        return resId != 0 ? ThumbSource.ofResource(getResources(), resId) : null;
+    }
+
+    /**
+     * Replaces the thumbs and derives the thumb size from the minimum thumb. Scaled images of the old thumbs are given
+     * back. A thumb with a source is a bitmap that is drawn from the shared cache, one without is a drawable that is
+     * drawn as it is.
+     */
+    private void setThumbs(Drawable left, ThumbSource leftSource, Drawable right, ThumbSource rightSource,
+                           Drawable pressed, ThumbSource pressedSource) {
+        releaseThumbs();
+        cancelThumbLoading();
+        thumbImage = null;
+        thumbImageRight = null;
+        thumbPressedImage = null;
+
+        for (Drawable old : new Drawable[]{mLeftThumbDrawable, mRightThumbDrawable, mPressedThumbDrawable}) {
+            if (old != null) {
+                old.setCallback(null);
+            }
+        }
+        mLeftThumbDrawable = left;
+        mRightThumbDrawable = right;
+        mPressedThumbDrawable = pressed;
+        mLeftThumbSource = leftSource;
+        mRightThumbSource = rightSource;
+        mPressedThumbSource = pressedSource;
+        for (Drawable drawable : new Drawable[]{left, right, pressed}) {
+            if (drawable != null && !(drawable instanceof BitmapDrawable)) {
+                // lets animated state changes redraw the widget
+                drawable.setCallback(this);
+            }
+        }
+
+        // the thumb size is known without scaling the images, so they can be prepared later
+        int width = mLeftThumbSource != null ? mLeftThumbSource.getWidth() : left.getIntrinsicWidth();
+        int height = mLeftThumbSource != null ? mLeftThumbSource.getHeight() : left.getIntrinsicHeight();
+        if (width <= 0 || height <= 0) {
+            // drawables without a size of their own fill a square
+            width = mThumbMaxResolution;
+            height = mThumbMaxResolution;
+        }
+        thumbWidth = PixelUtil.scaledWidth(width, height, mThumbMaxResolution);
+        mThumbHeight = PixelUtil.scaledHeight(width, height, mThumbMaxResolution);
+
+        thumbHalfWidth = (thumbWidth * 1.1f);
+        thumbHalfHeight = 0.5f * mThumbHeight;
+    }
+
+    /**
+     * Moves the track to fit thumbs of a new size.
+     */
+    private void updateThumbLayout() {
+        padding = INITIAL_PADDING + mMinMaxLabelSize + thumbHalfWidth;
+        final float halfLineHeight = mRect.height() / 2;
+        mRect.top = mTextOffset + thumbHalfHeight - halfLineHeight;
+        mRect.bottom = mTextOffset + thumbHalfHeight + halfLineHeight;
+        mStepSnapper.setTrackGeometry(padding, getWidth());
+        mHistogram.setBucketCount((int) (getWidth() - 2 * padding));
+        mHistogramLinesVersion = -1;
+        mTrackLayerValid = false;
+        requestLayout();
+        invalidate();
+    }
+
+    /**
+     * Prepares the scaled thumb images the way the thumb loading mode asks for.
+     */
+    private void loadThumbs() {
+        if (mThumbLoading == THUMB_LOADING_EAGER) {
+            acquireThumbs();
+        } else if (mThumbLoading == THUMB_LOADING_BACKGROUND) {
+            acquireThumbsInBackground();
+        } else if (getWidth() > 0) {
+            acquireThumbs();
+        }
+    }
+
+    private boolean hasThumbSources() {
+        return mLeftThumbSource != null || mRightThumbSource != null || mPressedThumbSource != null;
+    }
+
+    @Override
+    protected boolean verifyDrawable(Drawable who) {
+        return who == mLeftThumbDrawable || who == mRightThumbDrawable || who == mPressedThumbDrawable
+                || super.verifyDrawable(who);
+    }
+
+    /**
+     * Takes the scaled thumb images from the shared cache.
+     */
+    private void acquireThumbs() {
+        thumbImage = acquireThumb(mLeftThumbSource, mThumbMaxResolution);
+        thumbImageRight = acquireThumb(mRightThumbSource, mThumbMaxResolution);
+        thumbPressedImage = acquireThumb(mPressedThumbSource, mThumbMaxResolution);
+        mThumbsCached = true;
+        updateThumbMetrics();
+        keepThumbsUnlessAttached();
+    }
+
+    /**
+     * Gives the references back right away if the widget is not attached: only onDetachedFromWindow releases them, a
+     * widget that is never attached would hold them forever. The images stay usable and are taken from the cache again
+     * when the widget is attached.
+     */
+    private void keepThumbsUnlessAttached() {
+        if (!mAttached) {
+            releaseThumbs();
+        }
+    }
+
+    private static Bitmap acquireThumb(ThumbSource source, int maxResolution) {
+        return source != null ? ThumbBitmapCache.acquire(source, maxResolution) : null;
+    }
+
+    /**
+     * Takes the scaled thumb images from the shared cache on a background thread. Placeholders are drawn until they
+     * are available.
+     */
+    private void acquireThumbsInBackground() {
+        final int request = ++mThumbRequest;
+        final ThumbSource leftSource = mLeftThumbSource;
+        final ThumbSource rightSource = mRightThumbSource;
+        final ThumbSource pressedSource = mPressedThumbSource;
+        final int maxResolution = mThumbMaxResolution;
+
+        mThumbsLoading = true;
+        getThumbExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                final Bitmap left = acquireThumb(leftSource, maxResolution);
+                final Bitmap right = acquireThumb(rightSource, maxResolution);
+                final Bitmap pressed = acquireThumb(pressedSource, maxResolution);
+                sMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        onThumbsAcquired(request, left, right, pressed);
+                    }
+                });
+            }
+        });
+    }
+
+    private void onThumbsAcquired(int request, Bitmap left, Bitmap right, Bitmap pressed) {
+        if (request != mThumbRequest) {
+            // the widget was detached or got other thumbs in the meantime
+            ThumbBitmapCache.release(left);
+            ThumbBitmapCache.release(right);
+            ThumbBitmapCache.release(pressed);
+            return;
+        }
+        thumbImage = left;
+        thumbImageRight = right;
+        thumbPressedImage = pressed;
+        mThumbsCached = true;
+        mThumbsLoading = false;
+        updateThumbMetrics();
+        keepThumbsUnlessAttached();
+        invalidate();
+    }
+
+    /**
+     * Drops the result of a pending background load, if there is one.
+     */
+    private void cancelThumbLoading() {
+        if (mThumbsLoading) {
+            mThumbRequest++;
+            mThumbsLoading = false;
+        }
+    }
+
+    private static synchronized Executor getThumbExecutor() {
+        if (sThumbExecutor == null) {
+            sThumbExecutor = Executors.newSingleThreadExecutor();
+        }
+        return sThumbExecutor;
+    }
+
+    /**
+     * Gives the scaled thumb images back to the shared cache, if they were taken from it.
+     */
+    private void releaseThumbs() {
+        if (mThumbsCached) {
+            ThumbBitmapCache.release(thumbImage);
+            ThumbBitmapCache.release(thumbImageRight);
+            ThumbBitmapCache.release(thumbPressedImage);
+            mThumbsCached = false;
+        }
+    }
+
+    /**
+     * Sets how widgets created afterwards prepare their thumb images, unless the thumbLoading attribute is given.
+     *
+     * @param thumbLoading One of {@link #THUMB_LOADING_EAGER}, {@link #THUMB_LOADING_LAZY} or {@link #THUMB_LOADING_BACKGROUND}.
+     */
+    public static void setDefaultThumbLoading(int thumbLoading) {
+        sDefaultThumbLoading = thumbLoading;
+    }
+
+    public static int getDefaultThumbLoading() {
+        return sDefaultThumbLoading;
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        mAttached = true;
+        mModel.addOnRangeModelChangeListener(mModelListener);
+        // redraw requests made while detached were dropped
+        mInvalidatePending.set(false);
+        mStreamFramePending.set(false);
+        resumeStreams();
+        if (mThumbsCached || mThumbsLoading || !hasThumbSources()) {
+            return;
+        }
+        if (mThumbLoading == THUMB_LOADING_BACKGROUND) {
+            acquireThumbsInBackground();
+        } else if (mThumbLoading == THUMB_LOADING_EAGER || getWidth() > 0) {
+            // lazy widgets without a size yet wait for onSizeChanged
+            acquireThumbs();
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        mAttached = false;
+        mModel.removeOnRangeModelChangeListener(mModelListener);
+        // listeners may touch views that are being torn down, so they are not called from here
+        jumpToAnimationEnd();
+        cancelDragNotification();
+        releaseThumbs();
+        cancelThumbLoading();
+        super.onDetachedFromWindow();
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        mTrackLayerValid = false;
+        mStepSnapper.setTrackGeometry(padding, w);
+        // one bucket per pixel of the track
+        mHistogram.setBucketCount((int) (w - 2 * padding));
+        mHistogramLinesVersion = -1;
+        if (mAttached && !mThumbsCached && !mThumbsLoading && hasThumbSources()) {
+            acquireThumbs();
+        }
+    }
+
+    /**
+     * Returns the number of bytes held by the thumb images shared between all instances.
+     *
+     * @return The size of the shared thumb image cache in bytes.
+     */
+    public static long getThumbCacheBytes() {
+        return ThumbBitmapCache.getCachedBytes();
+    }
+
     public void setRangeValues(T minValue, T maxValue) {
         this.absoluteMinValue = minValue;
         this.absoluteMaxValue = maxValue;
@@ -246,9 +790,150 @@ public class CKSeekBar<T extends Number> extends AppCompatImageView {
     }
 
     private void setValuePrimAndNumberType() {
+        final NumberType oldNumberType = numberType;
         absoluteMinValuePrim = absoluteMinValue.doubleValue();
         absoluteMaxValuePrim = absoluteMaxValue.doubleValue();
         numberType = NumberType.fromNumber(absoluteMinValue);
+        mFixedPoint.setRange(absoluteMinValue, absoluteMaxValue, numberType, getDecimalPlaces());
+        mStepSnapper.setRange(absoluteMinValuePrim, absoluteMaxValuePrim);
+        mHistogram.setRange(absoluteMinValuePrim, absoluteMaxValuePrim);
+        if (numberType == oldNumberType) {
+            // labels are keyed by the value itself, so they stay valid for any range of the same type
+            resetSelectedValueCache();
+        } else {
+            resetCachedValues();
+        }
+    }
+
+    /**
+     * Drops the boxed values and labels, for when the same normalized values map to different values.
+     */
+    private void resetCachedValues() {
+        mLabelCache.clear();
+        resetSelectedValueCache();
+    }
+
+    /**
+     * Drops the boxed selected values and the labels shown for them, keeping the label cache.
+     */
+    private void resetSelectedValueCache() {
+        mState = new State(mModel.getSelection());
+        mMinTextNormalized = Double.NaN;
+        mMaxTextNormalized = Double.NaN;
+    }
+
+    /**
+     * Shows new values in a recycled widget, e.g. when a list row is rebound. Range and selection are replaced
+     * together, so the selection is never clamped against the previous range, and the widget is invalidated once.
+     * Thumbs, paints, the track layer and cached labels are kept and the layout is not requested again. Listeners are
+     * not notified. Must be called on the main thread.
+     *
+     * @param rangeMin    The absolute minimum value of the range.
+     * @param rangeMax    The absolute maximum value of the range.
+     * @param selectedMin The selected minimum value, clamped into the range.
+     * @param selectedMax The selected maximum value, clamped into the range.
+     */
+    public void bind(T rangeMin, T rangeMax, T selectedMin, T selectedMax) {
+        cancelAnimation();
+        cancelDragNotification();
+
+        if (!rangeMin.equals(absoluteMinValue) || !rangeMax.equals(absoluteMaxValue)) {
+            this.absoluteMinValue = rangeMin;
+            this.absoluteMaxValue = rangeMax;
+            setValuePrimAndNumberType();
+        }
+
+        double min = 0d;
+        double max = 1d;
+        if (!isRangeEmpty()) {
+            min = Math.max(0d, Math.min(1d, mStepSnapper.snap(valueToNormalized(selectedMin))));
+            max = Math.max(min, Math.min(1d, mStepSnapper.snap(valueToNormalized(selectedMax))));
+        }
+        mModel.setNormalizedValues(min, max, mModelListener);
+        invalidate();
+    }
+
+    /**
+     * Shows new values and a new listener in a recycled widget. See {@link #bind(Number, Number, Number, Number)}.
+     *
+     * @param listener The listener to notify about changes made by the user, or null.
+     */
+    public void bind(T rangeMin, T rangeMax, T selectedMin, T selectedMax, OnRangeSeekBarChangeListener<T> listener) {
+        this.listener = listener;
+        bind(rangeMin, rangeMax, selectedMin, selectedMax);
+    }
+
+    /**
+     * Shows the selection of the given model, which may be shared with other views and changed from any thread. All
+     * views showing the model redraw once per frame when it changes. The range and steps are still set on every view,
+     * views sharing a model should use the same ones.
+     *
+     * @param model The selection to show.
+     */
+    public void setRangeModel(RangeModel model) {
+        if (model == mModel) {
+            return;
+        }
+        cancelAnimation();
+        cancelDragNotification();
+        if (mAttached) {
+            mModel.removeOnRangeModelChangeListener(mModelListener);
+            model.addOnRangeModelChangeListener(mModelListener);
+        }
+        mModel = model;
+        invalidate();
+    }
+
+    public RangeModel getRangeModel() {
+        return mModel;
+    }
+
+    public double getStep() {
+        return mStepSnapper.getStep();
+    }
+
+    /**
+     * Restricts the selectable values to evenly spaced steps starting at the absolute minimum value. The maximum value
+     * stays selectable even if the range is not a multiple of the step. Dragging only redraws and notifies when the
+     * selected step changes.
+     *
+     * @param step The step size in value space, 0 to allow any value.
+     */
+    public void setStep(double step) {
+        mStepSnapper.setStep(step);
+        snapSelectedValues();
+    }
+
+    /**
+     * Restricts the selectable values to the given values.
+     *
+     * @param values The selectable values in any order, null to allow any value.
+     */
+    public void setSteps(double[] values) {
+        mStepSnapper.setSteps(values);
+        snapSelectedValues();
+    }
+
+    private void snapSelectedValues() {
+        final RangeModel.Selection selection = mModel.getSelection();
+        setNormalizedMinValue(selection.normalizedMin);
+        setNormalizedMaxValue(selection.normalizedMax);
+    }
+
+    public int getDecimalPlaces() {
+        return (int) Math.round(Math.log10(mRoundingFactor));
+    }
+
+    /**
+     * Sets the number of decimal places the selected values are rounded to. Default is 2.
+     *
+     * @param places The number of decimal places.
+     */
+    public void setDecimalPlaces(int places) {
+        mRoundingFactor = Math.pow(10, places);
+        mFixedPoint.setRange(absoluteMinValue, absoluteMaxValue, numberType, places);
+        resetCachedValues();
+        invalidate();
     }
 
     public void resetSelectedValues() {
@@ -269,6 +954,23 @@ public class CKSeekBar<T extends Number> extends AppCompatImageView {
         this.notifyWhileDragging = flag;
     }
 
+    public long getNotifyInterval() {
+        return mNotifyInterval;
+    }
+
+    /**
+     * Sets how often the listeners are notified while the user is dragging, see {@link #setNotifyWhileDragging(boolean)}.
+     * With {@link #NOTIFY_INTERVAL_FRAME} or a positive interval, changes are coalesced into at most one callback per
+     * frame or per interval, callbacks for unchanged values are skipped and the final values are always delivered when
+     * the touch ends. Default is {@link #NOTIFY_INTERVAL_NONE}.
+     *
+     * @param intervalMs {@link #NOTIFY_INTERVAL_NONE}, {@link #NOTIFY_INTERVAL_FRAME} or the minimum time between two
+     *                   callbacks in milliseconds.
+     */
+    public void setNotifyInterval(long intervalMs) {
+        this.mNotifyInterval = intervalMs;
+    }
+
     /**
      * Returns the absolute minimum value of the range that has been set at construction time.
      *
@@ -293,7 +995,38 @@ public class CKSeekBar<T extends Number> extends AppCompatImageView {
      * @return The currently selected min value.
      */
     public T getSelectedMinValue() {
-        return normalizedToValue(normalizedMinValue);
+        return getSelectedMinValue(currentState());
+    }
+
+    @SuppressWarnings("unchecked")
+    private T getSelectedMinValue(State state) {
+        // the boxed value is built once per state, racing threads build equal values
+        if (state.minValue == null) {
+            state.minValue = normalizedToValue(state.normalizedMin);
+        }
+        return (T) state.minValue;
+    }
+
+    /**
+     * Returns the currently selected min value without boxing it.
+     *
+     * @return The currently selected min value.
+     */
+    public double getSelectedMinValuePrim() {
+        return normalizedToValuePrim(mModel.getNormalizedMin());
+    }
+
+    /**
+     * Returns the currently selected min value truncated to a long, without boxing it.
+     * Exact for integral ranges of any magnitude.
+     *
+     * @return The currently selected min value.
+     */
+    public long getSelectedMinValueLong() {
+        if (mFixedPoint.isEnabled()) {
+            return mFixedPoint.unitsToLong(mFixedPoint.normalizedToUnits(mModel.getNormalizedMin()));
+        }
+        return (long) getSelectedMinValuePrim();
     }
 
     /**
@@ -303,7 +1036,7 @@ public class CKSeekBar<T extends Number> extends AppCompatImageView {
      */
     public void setSelectedMinValue(T value) {
         // in case absoluteMinValue == absoluteMaxValue, avoid division by zero when normalizing.
-        if (0 == (absoluteMaxValuePrim - absoluteMinValuePrim)) {
+        if (isRangeEmpty()) {
             setNormalizedMinValue(0d);
         } else {
             setNormalizedMinValue(valueToNormalized(value));
@@ -311,14 +1044,73 @@ public class CKSeekBar<T extends Number> extends AppCompatImageView {
     }
 
     /**
-     * Returns the currently selected max value.
+     * Sets the currently selected minimum value without boxing it. The widget will be invalidated and redrawn.
      *
-     * @return The currently selected max value.
+     * @param value The value to set the minimum value to. Will be clamped to given absolute minimum/maximum range.
      */
-    public T getSelectedMaxValue() {
-        return normalizedToValue(normalizedMaxValue);
-    }
-
+    public void setSelectedMinValuePrim(double value) {
+        // in case absoluteMinValue == absoluteMaxValue, avoid division by zero when normalizing.
+        if (isRangeEmpty()) {
+            setNormalizedMinValue(0d);
+        } else {
+            setNormalizedMinValue(valueToNormalized(value));
+        }
+    }
+
+    /**
+     * Sets the currently selected minimum value without boxing it. The widget will be invalidated and redrawn.
+     *
+     * @param value The value to set the minimum value to. Will be clamped to given absolute minimum/maximum range.
+     */
+    public void setSelectedMinValueLong(long value) {
+        // in case absoluteMinValue == absoluteMaxValue, avoid division by zero when normalizing.
+        if (isRangeEmpty()) {
+            setNormalizedMinValue(0d);
+        } else {
+            setNormalizedMinValue(longToNormalized(value));
+        }
+    }
+
+    /**
+     * Returns the currently selected max value.
+     *
+     * @return The currently selected max value.
+     */
+    public T getSelectedMaxValue() {
+        return getSelectedMaxValue(currentState());
+    }
+
+    @SuppressWarnings("unchecked")
+    private T getSelectedMaxValue(State state) {
+        // the boxed value is built once per state, racing threads build equal values
+        if (state.maxValue == null) {
+            state.maxValue = normalizedToValue(state.normalizedMax);
+        }
+        return (T) state.maxValue;
+    }
+
+    /**
+     * Returns the currently selected max value without boxing it.
+     *
+     * @return The currently selected max value.
+     */
+    public double getSelectedMaxValuePrim() {
+        return normalizedToValuePrim(mModel.getNormalizedMax());
+    }
+
+    /**
+     * Returns the currently selected max value truncated to a long, without boxing it.
+     * Exact for integral ranges of any magnitude.
+     *
+     * @return The currently selected max value.
+     */
+    public long getSelectedMaxValueLong() {
+        if (mFixedPoint.isEnabled()) {
+            return mFixedPoint.unitsToLong(mFixedPoint.normalizedToUnits(mModel.getNormalizedMax()));
+        }
+        return (long) getSelectedMaxValuePrim();
+    }
+
     /**
      * Sets the currently selected maximum value. The widget will be invalidated and redrawn.
      *
@@ -326,13 +1118,41 @@ public class CKSeekBar<T extends Number> extends AppCompatImageView {
      */
     public void setSelectedMaxValue(T value) {
         // in case absoluteMinValue == absoluteMaxValue, avoid division by zero when normalizing.
-        if (0 == (absoluteMaxValuePrim - absoluteMinValuePrim)) {
+        if (isRangeEmpty()) {
+            setNormalizedMaxValue(1d);
+        } else {
+            setNormalizedMaxValue(valueToNormalized(value));
+        }
+    }
+
+    /**
+     * Sets the currently selected maximum value without boxing it. The widget will be invalidated and redrawn.
+     *
+     * @param value The value to set the maximum value to. Will be clamped to given absolute minimum/maximum range.
+     */
+    public void setSelectedMaxValuePrim(double value) {
+        // in case absoluteMinValue == absoluteMaxValue, avoid division by zero when normalizing.
+        if (isRangeEmpty()) {
             setNormalizedMaxValue(1d);
         } else {
             setNormalizedMaxValue(valueToNormalized(value));
         }
     }
 
+    /**
+     * Sets the currently selected maximum value without boxing it. The widget will be invalidated and redrawn.
+     *
+     * @param value The value to set the maximum value to. Will be clamped to given absolute minimum/maximum range.
+     */
+    public void setSelectedMaxValueLong(long value) {
+        // in case absoluteMinValue == absoluteMaxValue, avoid division by zero when normalizing.
+        if (isRangeEmpty()) {
+            setNormalizedMaxValue(1d);
+        } else {
+            setNormalizedMaxValue(longToNormalized(value));
+        }
+    }
+
     /**
      * Registers given listener callback to notify about changed selected values.
      *
@@ -342,11 +1162,301 @@ public class CKSeekBar<T extends Number> extends AppCompatImageView {
         this.listener = listener;
     }
 
+    /**
+     * Registers given listener callback to notify about changed selected values as primitives, without boxing them.
+     * It is notified in addition to the listener set with {@link #setOnRangeSeekBarChangeListener}.
+     *
+     * @param listener The listener to notify about changed selected values.
+     */
+    public void setOnRangeSeekBarPrimitiveChangeListener(OnRangeSeekBarPrimitiveChangeListener listener) {
+        this.primitiveListener = listener;
+    }
+
+    /**
+     * Animates the selected values to the given ones. All animating widgets are driven by one shared frame callback
+     * and a frame allocates only the new selection of the {@link RangeModel}. Listeners are notified once, when the
+     * animation ends. Detaching the widget jumps to the given values without notifying the listeners. Touching a thumb
+     * cancels the animation. Must be called on the main thread.
+     *
+     * @param minValue     The minimum value to animate to.
+     * @param maxValue     The maximum value to animate to.
+     * @param durationMs   The duration of the animation, 0 to jump to the values right away.
+     * @param interpolator The interpolator to apply, or null for a linear animation.
+     */
+    public void animateTo(T minValue, T maxValue, long durationMs, TimeInterpolator interpolator) {
+        if (isRangeEmpty()) {
+            animateToNormalized(0d, 1d, durationMs, interpolator);
+        } else {
+            animateToNormalized(valueToNormalized(minValue), valueToNormalized(maxValue), durationMs, interpolator);
+        }
+    }
+
+    /**
+     * Animates the selected values to the given ones without boxing them. See
+     * {@link #animateTo(Number, Number, long, TimeInterpolator)}.
+     *
+     * @param minValue     The minimum value to animate to.
+     * @param maxValue     The maximum value to animate to.
+     * @param durationMs   The duration of the animation, 0 to jump to the values right away.
+     * @param interpolator The interpolator to apply, or null for a linear animation.
+     */
+    public void animateToPrim(double minValue, double maxValue, long durationMs, TimeInterpolator interpolator) {
+        if (isRangeEmpty()) {
+            animateToNormalized(0d, 1d, durationMs, interpolator);
+        } else {
+            animateToNormalized(valueToNormalized(minValue), valueToNormalized(maxValue), durationMs, interpolator);
+        }
+    }
+
+    private void animateToNormalized(double min, double max, long durationMs, TimeInterpolator interpolator) {
+        final RangeModel.Selection selection = mModel.getSelection();
+        mAnimFromMin = selection.normalizedMin;
+        mAnimFromMax = selection.normalizedMax;
+        mAnimToMin = Math.max(0d, Math.min(1d, Math.min(min, max)));
+        mAnimToMax = Math.max(0d, Math.min(1d, Math.max(min, max)));
+        mAnimInterpolator = interpolator;
+        mAnimDurationNanos = Math.max(0, durationMs) * 1000000L;
+        // the clock starts with the first frame
+        mAnimStartNanos = 0;
+        mAnimating = true;
+        if (mAnimDurationNanos == 0) {
+            finishAnimation();
+        } else {
+            SeekBarAnimator.getInstance().start(this);
+        }
+    }
+
+    public boolean isAnimating() {
+        return mAnimating;
+    }
+
+    /**
+     * Stops a running animation where it is, without notifying the listeners.
+     */
+    public void cancelAnimation() {
+        if (mAnimating) {
+            mAnimating = false;
+            SeekBarAnimator.getInstance().cancel(this);
+        }
+    }
+
+    /**
+     * Jumps to the end of a running animation and notifies the listeners.
+     */
+    private void finishAnimation() {
+        if (jumpToAnimationEnd()) {
+            mLastEventTime = SystemClock.uptimeMillis();
+            notifyListeners(false);
+        }
+    }
+
+    /**
+     * Jumps to the end of a running animation without notifying the listeners.
+     *
+     * @return true if an animation was running.
+     */
+    private boolean jumpToAnimationEnd() {
+        if (!mAnimating) {
+            return false;
+        }
+        mAnimating = false;
+        SeekBarAnimator.getInstance().cancel(this);
+        applyAnimatedValues(mAnimToMin, mAnimToMax);
+        return true;
+    }
+
+    /**
+     * Advances the animation to the given frame. Called by {@link SeekBarAnimator}.
+     *
+     * @return true if the animation is still running afterwards.
+     */
+    boolean stepAnimation(long frameTimeNanos) {
+        if (!mAnimating) {
+            return false;
+        }
+        if (mAnimStartNanos == 0) {
+            mAnimStartNanos = frameTimeNanos;
+        }
+        final long elapsed = frameTimeNanos - mAnimStartNanos;
+        if (elapsed >= mAnimDurationNanos) {
+            finishAnimation();
+            // a listener may have started the next animation
+            return mAnimating;
+        }
+        float fraction = elapsed / (float) mAnimDurationNanos;
+        if (mAnimInterpolator != null) {
+            fraction = mAnimInterpolator.getInterpolation(fraction);
+        }
+        applyAnimatedValues(mAnimFromMin + (mAnimToMin - mAnimFromMin) * fraction,
+                mAnimFromMax + (mAnimToMax - mAnimFromMax) * fraction);
+        return true;
+    }
+
+    private void applyAnimatedValues(double min, double max) {
+        // both values in one change, so a frame replaces the selection once
+        if (mModel.setNormalizedValues(mStepSnapper.snap(min), mStepSnapper.snap(max), mModelListener)) {
+            // frame callbacks run before drawing, so the change shows in this frame
+            invalidateChangedRegion();
+        }
+    }
+
+    /**
+     * Notifies both listener callbacks about the currently selected values.
+     *
+     * @param aInUse Is the user still touching the widget?
+     */
+    private void notifyListeners(boolean aInUse) {
+        final RangeModel.Selection selection = mModel.getSelection();
+        mLastNotifiedMin = normalizedToValuePrim(selection.normalizedMin);
+        mLastNotifiedMax = normalizedToValuePrim(selection.normalizedMax);
+        mLastNotifyTime = SystemClock.uptimeMillis();
+        if (mMetrics != null && (primitiveListener != null || listener != null)) {
+            mMetrics.recordDispatch(mLastNotifyTime - mLastEventTime);
+        }
+        if (primitiveListener != null) {
+            primitiveListener.onValuesChanged(this, mLastNotifiedMin, mLastNotifiedMax, aInUse);
+        }
+        if (listener != null) {
+            final State state = stateOf(selection);
+            listener.onRangeSeekBarValuesChanged(this, getSelectedMinValue(state), getSelectedMaxValue(state), aInUse);
+        }
+        if (mGroup != null) {
+            mGroup.onSeekBarChanged(this, aInUse);
+        }
+    }
+
+    /**
+     * Notifies the listeners about a drag, right away or coalesced according to the notify interval.
+     */
+    private void notifyDrag() {
+        if (mNotifyInterval < 0) {
+            // with steps, moves within the same step are not worth a callback
+            if (!mStepSnapper.isEnabled() || selectedValuesChangedSinceNotify()) {
+                notifyListeners(true);
+            }
+            return;
+        }
+        if (mDragNotificationScheduled) {
+            return;
+        }
+        mDragNotificationScheduled = true;
+        long delay = mLastNotifyTime + mNotifyInterval - SystemClock.uptimeMillis();
+        if (mNotifyInterval > 0 && delay > 0) {
+            Choreographer.getInstance().postFrameCallbackDelayed(mDragNotificationCallback, delay);
+        } else {
+            Choreographer.getInstance().postFrameCallback(mDragNotificationCallback);
+        }
+    }
+
+    /**
+     * Delivers a coalesced drag notification, unless the rounded values did not change since the last one.
+     */
+    private void dispatchDragNotification() {
+        mDragNotificationScheduled = false;
+        if (pressedThumb == null) {
+            return;
+        }
+        if (selectedValuesChangedSinceNotify()) {
+            notifyListeners(true);
+        }
+    }
+
+    private boolean selectedValuesChangedSinceNotify() {
+        final RangeModel.Selection selection = mModel.getSelection();
+        return normalizedToValuePrim(selection.normalizedMin) != mLastNotifiedMin
+                || normalizedToValuePrim(selection.normalizedMax) != mLastNotifiedMax;
+    }
+
+    /**
+     * Drops a pending coalesced drag notification, the final values are delivered instead.
+     */
+    private void cancelDragNotification() {
+        if (mDragNotificationScheduled) {
+            Choreographer.getInstance().removeFrameCallback(mDragNotificationCallback);
+            mDragNotificationScheduled = false;
+        }
+    }
+
+    public boolean isMetricsEnabled() {
+        return mMetrics != null;
+    }
+
+    /**
+     * Starts or stops collecting draw, touch and dispatch metrics for this widget. Stopping discards the collected
+     * values.
+     *
+     * @param enabled Should metrics be collected?
+     */
+    public void setMetricsEnabled(boolean enabled) {
+        if (enabled && mMetrics == null) {
+            mMetrics = new CKSeekBarMetrics();
+            updateThumbMetrics();
+        } else if (!enabled) {
+            mMetrics = null;
+        }
+    }
+
+    /**
+     * Returns the metrics collected since they were enabled or reset.
+     *
+     * @return The metrics, or null if they are not enabled.
+     */
+    public CKSeekBarMetrics getMetrics() {
+        return mMetrics;
+    }
+
+    private void updateThumbMetrics() {
+        if (mMetrics == null) {
+            return;
+        }
+        long bytes = 0;
+        if (thumbImage != null) {
+            bytes += thumbImage.getByteCount();
+        }
+        if (thumbPressedImage != null && thumbPressedImage != thumbImage) {
+            bytes += thumbPressedImage.getByteCount();
+        }
+        if (thumbImageRight != null && thumbImageRight != thumbImage && thumbImageRight != thumbPressedImage) {
+            bytes += thumbImageRight.getByteCount();
+        }
+        mMetrics.setThumbBitmapBytes(bytes);
+    }
+
+    @Override
+    public void invalidate() {
+        super.invalidate();
+        if (mMetrics != null) {
+            mMetrics.recordInvalidate();
+        }
+    }
+
+    @Override
+    public void invalidate(int l, int t, int r, int b) {
+        super.invalidate(l, t, r, b);
+        if (mMetrics != null) {
+            mMetrics.recordInvalidate();
+        }
+    }
+
     /**
      * Handles thumb selection and movement. Notifies listener callback on certain events.
      */
     @Override
     public boolean onTouchEvent(MotionEvent event) {
+        TraceCompat.beginSection("CKSeekBar#onTouchEvent");
+        final long start = mMetrics != null ? System.nanoTime() : 0;
+        mLastEventTime = event.getEventTime();
+        try {
+            return handleTouchEvent(event);
+        } finally {
+            if (mMetrics != null) {
+                mMetrics.recordTouch(start, System.nanoTime());
+            }
+            TraceCompat.endSection();
+        }
+    }
+
+    private boolean handleTouchEvent(MotionEvent event) {
 
         if (!isEnabled()) {
             return false;
@@ -374,15 +1484,16 @@ public class CKSeekBar<T extends Number> extends AppCompatImageView {
                     return super.onTouchEvent(event);
                 }
 
+                // the user takes over from a running animation
+                cancelAnimation();
+
                 setPressed(true);
                 invalidate();
                 onStartTrackingTouch();
                 trackTouchEvent(event);
                 attemptClaimDrag();
 
-                if (listener != null) {
-                    listener.onRangeSeekBarValuesChanged(this, getSelectedMinValue(), getSelectedMaxValue(), true);
-                }
+                notifyListeners(true);
                 break;
             case MotionEvent.ACTION_MOVE:
                 if (pressedThumb != null) {
@@ -403,8 +1514,8 @@ public class CKSeekBar<T extends Number> extends AppCompatImageView {
                         }
                     }
 
-                    if (notifyWhileDragging && listener != null) {
-                        listener.onRangeSeekBarValuesChanged(this, getSelectedMinValue(), getSelectedMaxValue(), true);
+                    if (notifyWhileDragging) {
+                        notifyDrag();
                     }
                 }
                 break;
@@ -423,9 +1534,8 @@ public class CKSeekBar<T extends Number> extends AppCompatImageView {
 
                 pressedThumb = null;
                 invalidate();
-                if (listener != null) {
-                    listener.onRangeSeekBarValuesChanged(this, getSelectedMinValue(), getSelectedMaxValue(), false);
-                }
+                cancelDragNotification();
+                notifyListeners(false);
                 break;
             case MotionEvent.ACTION_POINTER_DOWN: {
                 final int index = event.getPointerCount() - 1;
@@ -445,6 +1555,12 @@ public class CKSeekBar<T extends Number> extends AppCompatImageView {
                     setPressed(false);
                 }
                 invalidate(); // see above explanation
+                if (mNotifyInterval >= 0 && pressedThumb != null) {
+                    // coalesced listeners always get the final values
+                    cancelDragNotification();
+                    pressedThumb = null;
+                    notifyListeners(false);
+                }
                 break;
         }
         return true;
@@ -464,14 +1580,32 @@ public class CKSeekBar<T extends Number> extends AppCompatImageView {
         }
     }
 
+    /**
+     * Moves the pressed thumb through all samples batched into the event, oldest first, and requests a single redraw
+     * for the whole batch.
+     */
     private final void trackTouchEvent(MotionEvent event) {
         final int pointerIndex = event.findPointerIndex(mActivePointerId);
-        final float x = event.getX(pointerIndex);
+        final boolean trackMin = Thumb.MIN.equals(pressedThumb) && !mSingleThumb;
+        final boolean trackMax = !trackMin && Thumb.MAX.equals(pressedThumb);
+        if (!trackMin && !trackMax) {
+            return;
+        }
+
+        boolean changed = false;
+        final int historySize = event.getHistorySize();
+        for (int h = 0; h <= historySize; h++) {
+            final float x = h < historySize ? event.getHistoricalX(pointerIndex, h) : event.getX(pointerIndex);
+            final double normalized = mStepSnapper.isEnabled() ? mStepSnapper.snapScreen(x) : screenToNormalized(x);
+            if (trackMin) {
+                changed |= updateNormalizedMinValue(normalized);
+            } else {
+                changed |= updateNormalizedMaxValue(normalized);
+            }
+        }
 
-        if (Thumb.MIN.equals(pressedThumb) && !mSingleThumb) {
-            setNormalizedMinValue(screenToNormalized(x));
-        } else if (Thumb.MAX.equals(pressedThumb)) {
-            setNormalizedMaxValue(screenToNormalized(x));
+        if (changed) {
+            scheduleInvalidate();
         }
     }
 
@@ -496,20 +1630,130 @@ public class CKSeekBar<T extends Number> extends AppCompatImageView {
      */
     void onStopTrackingTouch() {
         mIsDragging = false;
+        resumeStreams();
+    }
+
+    /**
+     * Lets the selected minimum value follow the given stream. Values are taken at most once per frame, only the
+     * latest one is applied. While the user drags a thumb or the widget is detached, pushed values wait in the stream.
+     * Listeners are not notified, like for {@link #setSelectedMinValuePrim(double)}.
+     *
+     * @param stream The stream to follow, or null to stop following.
+     */
+    public void bindSelectedMinValue(ValueStream stream) {
+        if (mMinStream != null) {
+            mMinStream.setConsumer(null);
+        }
+        mMinStream = stream;
+        if (stream != null) {
+            stream.setConsumer(mStreamWakeup);
+            resumeStreams();
+        }
+    }
+
+    /**
+     * Lets the selected maximum value follow the given stream. See {@link #bindSelectedMinValue(ValueStream)}.
+     *
+     * @param stream The stream to follow, or null to stop following.
+     */
+    public void bindSelectedMaxValue(ValueStream stream) {
+        if (mMaxStream != null) {
+            mMaxStream.setConsumer(null);
+        }
+        mMaxStream = stream;
+        if (stream != null) {
+            stream.setConsumer(mStreamWakeup);
+            resumeStreams();
+        }
+    }
+
+    /**
+     * Takes values that arrived while the streams were paused.
+     */
+    private void resumeStreams() {
+        if ((mMinStream != null && mMinStream.hasValue()) || (mMaxStream != null && mMaxStream.hasValue())) {
+            scheduleStreamFrame();
+        }
+    }
+
+    /**
+     * Requests one stream update on the next frame, however many values are pushed before it.
+     */
+    private void scheduleStreamFrame() {
+        if (mStreamFramePending.compareAndSet(false, true)) {
+            postOnAnimation(mConsumeStreamsRunnable);
+        }
+    }
+
+    private void consumeStreams() {
+        if (mIsDragging || !mAttached) {
+            // values stay in the streams until dragging ends or the widget is attached again
+            return;
+        }
+        if (takeStreamValues()) {
+            // this already runs on the frame, so the redraw happens right away
+            invalidateChangedRegion();
+        }
+    }
+
+    /**
+     * Applies the latest values of the bound streams to the selection.
+     *
+     * @return true if the selection changed.
+     */
+    boolean takeStreamValues() {
+        boolean changed = false;
+        double normalized = takeNormalized(mMinStream);
+        if (!Double.isNaN(normalized)) {
+            changed |= updateNormalizedMinValue(normalized);
+        }
+        normalized = takeNormalized(mMaxStream);
+        if (!Double.isNaN(normalized)) {
+            changed |= updateNormalizedMaxValue(normalized);
+        }
+        return changed;
+    }
+
+    /**
+     * Takes the latest value of the given stream as a normalized value.
+     *
+     * @return The normalized value, or NaN if the stream is null or has no value.
+     */
+    private double takeNormalized(ValueStream stream) {
+        if (stream == null) {
+            return Double.NaN;
+        }
+        final long taken = stream.take();
+        if (taken == ValueStream.TAKEN_NONE) {
+            return Double.NaN;
+        }
+        if (taken == ValueStream.TAKEN_LONG) {
+            return longToNormalized(stream.takenLong());
+        }
+        return valueToNormalized(Double.longBitsToDouble(taken));
     }
 
     /**
      * Ensures correct size of the widget.
      */
     @Override
-    protected synchronized void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        TraceCompat.beginSection("CKSeekBar#onMeasure");
+        try {
+            measureSeekBar(widthMeasureSpec, heightMeasureSpec);
+        } finally {
+            TraceCompat.endSection();
+        }
+    }
+
+    private void measureSeekBar(int widthMeasureSpec, int heightMeasureSpec) {
         int width = 200;
         if (MeasureSpec.UNSPECIFIED != MeasureSpec.getMode(widthMeasureSpec)) {
             width = MeasureSpec.getSize(widthMeasureSpec);
         }
 
         //int height = thumbImage.getHeight() + PixelUtil.dpToPx(getContext(), HEIGHT_IN_DP);
-        int height = thumbImage.getHeight() + (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 40, getResources().getDisplayMetrics());
+        int height = mThumbHeight + (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 40, getResources().getDisplayMetrics());
         if (MeasureSpec.UNSPECIFIED != MeasureSpec.getMode(heightMeasureSpec)) {
             height = Math.min(height, MeasureSpec.getSize(heightMeasureSpec));
         }
@@ -520,41 +1764,38 @@ public class CKSeekBar<T extends Number> extends AppCompatImageView {
      * Draws the widget on the given canvas.
      */
     @Override
-    protected synchronized void onDraw(Canvas canvas) {
+    protected void onDraw(Canvas canvas) {
+        TraceCompat.beginSection("CKSeekBar#onDraw");
+        final long start = mMetrics != null ? System.nanoTime() : 0;
+        try {
+            drawSeekBar(canvas);
+        } finally {
+            if (mMetrics != null) {
+                mMetrics.recordDraw(start, System.nanoTime());
+            }
+            TraceCompat.endSection();
+        }
+    }
+
+    private void drawSeekBar(Canvas canvas) {
         super.onDraw(canvas);
 
-        paint.setStyle(Paint.Style.FILL_AND_STROKE);
-        paint.setColor(getResources().getColor(R.color.ckred));
-        paint.setAntiAlias(true);
-
-        // draw min and max labels
-        String minLabel = "  ";
-        String maxLabel = "  ";
-        float minMaxLabelSize = Math.max(paint.measureText(minLabel), paint.measureText(maxLabel));
-        float minMaxHeight = mTextOffset + thumbHalfHeight + mTextSize / 3;
-        canvas.drawText(minLabel, 0, minMaxHeight, paint);
-        canvas.drawText(maxLabel, getWidth() - minMaxLabelSize, minMaxHeight, paint);
-        padding = INITIAL_PADDING + minMaxLabelSize + thumbHalfWidth;
+        final RangeModel.Selection selection = mModel.getSelection();
+        final double min = selection.normalizedMin;
+        final double max = selection.normalizedMax;
 
-        // draw seek bar background line
-        mRect.left = padding;
-        mRect.right = getWidth() - padding;
-        paint.setStrokeWidth(mLineHeight);
-        canvas.drawRoundRect(mRect, 5f, 5f, paint);
+        drawHistogram(canvas, min, max);
 
-        boolean selectedValuesAreDefault = (getSelectedMinValue().equals(getAbsoluteMinValue()) &&
-                getSelectedMaxValue().equals(getAbsoluteMaxValue()));
+        // draw seek bar background line
+        drawTrackLayer(canvas);
 
-        selectedValuesAreDefault = false;
+        // the disabled thumb state is never shown, labels are always drawn
+        final boolean selectedValuesAreDefault = false;
 
         // draw seek bar active range line
-        mRect.left = normalizedToScreen(normalizedMinValue);
-        mRect.right = normalizedToScreen(normalizedMaxValue);
-
-        paint.setColor(mLineHighlightColor);
-
         if(mLineHighlight){ // ���� ���̶���Ʈ
-            canvas.drawRoundRect(mRect, 0f, 0f, paint);
+            SeekBarRenderer.drawHighlight(canvas, mRect, normalizedToScreen(min),
+                    normalizedToScreen(max), mLineHighlightColor, paint);
         }
 
         //paint.setStyle(PaintText.Style.FILL);
@@ -562,68 +1803,517 @@ public class CKSeekBar<T extends Number> extends AppCompatImageView {
         // draw minimum thumb if not a single thumb control
         if (!mSingleThumb) {
             //����
-            drawThumb(normalizedToScreen(normalizedMinValue), Thumb.MIN.equals(pressedThumb), canvas,
+            drawThumb(normalizedToScreen(min), Thumb.MIN.equals(pressedThumb), canvas,
                     selectedValuesAreDefault, false);
         }
 
         // draw maximum thumb
-        drawThumb(normalizedToScreen(normalizedMaxValue), Thumb.MAX.equals(pressedThumb), canvas,
+        drawThumb(normalizedToScreen(max), Thumb.MAX.equals(pressedThumb), canvas,
                 selectedValuesAreDefault,true);
 
         // draw the text if sliders have moved from default edges
         if (!selectedValuesAreDefault) {
 
-            Paint lTextPnt = new Paint();
-            lTextPnt.setFlags(Paint.ANTI_ALIAS_FLAG);
-            lTextPnt.setTextSize(mTextSize);
-            lTextPnt.setColor(Color.BLACK);
-
-            // give text a bit more space here so it doesn't get cut off
-            int offset = PixelUtil.dpToPx(getContext(), TEXT_LATERAL_PADDING_IN_DP);
-
-            String minText = String.valueOf(getSelectedMinValue())+"%";
-            String maxText = String.valueOf(getSelectedMaxValue())+"%";
-            float minTextWidth = lTextPnt.measureText(minText) + offset;
-            float maxTextWidth = lTextPnt.measureText(maxText) + offset;
+            updateValueLabels(min, max);
 
             if (!mSingleThumb) {
 
-                canvas.drawText(minText,
-                        normalizedToScreen(normalizedMinValue) - minTextWidth * 0.5f,
+                canvas.drawText(mMinLabel.text, 0, mMinLabel.length,
+                        normalizedToScreen(min) - mMinTextWidth * 0.5f,
                         mDistanceToTop + mTextSize,
-                        lTextPnt);
+                        mTextPaint);
 
             }
 
-            canvas.drawText(maxText,
-                    normalizedToScreen(normalizedMaxValue) - maxTextWidth * 0.5f,
+            canvas.drawText(mMaxLabel.text, 0, mMaxLabel.length,
+                    normalizedToScreen(max) - mMaxTextWidth * 0.5f,
                     mDistanceToTop + mTextSize,
-                    lTextPnt);
+                    mTextPaint);
+        }
+
+        mDrawnMin = min;
+        mDrawnMax = max;
+        float minX = normalizedToScreen(min);
+        float maxX = normalizedToScreen(max);
+        mDrawnMinLeft = thumbLeft(minX, mMinTextWidth);
+        mDrawnMinRight = thumbRight(minX, mMinTextWidth);
+        mDrawnMaxLeft = thumbLeft(maxX, mMaxTextWidth);
+        mDrawnMaxRight = thumbRight(maxX, mMaxTextWidth);
+
+        if (mShowInvalidatedRegions && !mDebugRect.isEmpty()) {
+            canvas.drawRect(mDebugRect, mDebugPaint);
+        }
+    }
+
+    /**
+     * Draws the histogram bars upwards from the track, rebuilding the line arrays only when the histogram or the
+     * selection changed.
+     */
+    private void drawHistogram(Canvas canvas, double min, double max) {
+        synchronized (mHistogram) {
+            if (mHistogram.getTotalCount() == 0) {
+                return;
+            }
+            if (mHistogram.getVersion() != mHistogramLinesVersion
+                    || min != mHistogramLinesMin || max != mHistogramLinesMax) {
+                buildHistogramLines(min, max);
+            }
+        }
+        if (mHistogramLineCount > 0) {
+            canvas.drawLines(mHistogramLines, 0, mHistogramLineCount * 4, mHistogramPaint);
+        }
+        if (mHistogramHighlightLineCount > 0) {
+            canvas.drawLines(mHistogramHighlightLines, 0, mHistogramHighlightLineCount * 4, mHistogramHighlightPaint);
+        }
+    }
+
+    private void buildHistogramLines(double min, double max) {
+        final int bucketCount = mHistogram.getBucketCount();
+        if (mHistogramLines.length < bucketCount * 4) {
+            mHistogramLines = new float[bucketCount * 4];
+            mHistogramHighlightLines = new float[bucketCount * 4];
+        }
+
+        final float baseline = mRect.centerY();
+        final float scale = thumbHalfHeight / mHistogram.getMaxCount();
+        final float bucketWidth = (getWidth() - 2 * padding) / bucketCount;
+        int lines = 0;
+        int highlightLines = 0;
+        for (int i = 0; i < bucketCount; i++) {
+            int count = mHistogram.getCount(i);
+            if (count == 0) {
+                continue;
+            }
+            // a bucket is highlighted when all of its values are selected
+            boolean selected = valueToNormalized(mHistogram.getMin(i)) >= min
+                    && valueToNormalized(mHistogram.getMax(i)) <= max;
+            float[] target = selected ? mHistogramHighlightLines : mHistogramLines;
+            int offset = (selected ? highlightLines++ : lines++) * 4;
+            float x = padding + (i + 0.5f) * bucketWidth;
+            target[offset] = x;
+            target[offset + 1] = baseline;
+            target[offset + 2] = x;
+            target[offset + 3] = baseline - count * scale;
+        }
+        mHistogramLineCount = lines;
+        mHistogramHighlightLineCount = highlightLines;
+        mHistogramPaint.setStrokeWidth(Math.max(1f, bucketWidth));
+        mHistogramHighlightPaint.setStrokeWidth(Math.max(1f, bucketWidth));
+
+        mHistogramLinesVersion = mHistogram.getVersion();
+        mHistogramLinesMin = min;
+        mHistogramLinesMax = max;
+    }
+
+    /**
+     * Draws the cached background line, recording it first if the size or style changed. The recording is a
+     * {@link Picture} where the canvas can replay one and an offscreen bitmap on older hardware accelerated canvases.
+     */
+    private void drawTrackLayer(Canvas canvas) {
+        final boolean useBitmap = canvas.isHardwareAccelerated() && Build.VERSION.SDK_INT < Build.VERSION_CODES.M;
+        if (!mTrackLayerValid || mTrackLayerIsBitmap != useBitmap) {
+            recordTrackLayer(useBitmap);
+        }
+        if (mTrackLayerIsBitmap) {
+            canvas.drawBitmap(mTrackBitmap, 0, mTrackLayerTop, null);
+        } else {
+            canvas.save();
+            canvas.translate(0, mTrackLayerTop);
+            canvas.drawPicture(mTrackPicture);
+            canvas.restore();
         }
+    }
+
+    private void recordTrackLayer(boolean useBitmap) {
+        // only the band around the line is recorded
+        final float halfStroke = mLineHeight * 0.5f;
+        mTrackLayerTop = (int) Math.floor(mRect.top - halfStroke) - 1;
+        final int width = Math.max(1, getWidth());
+        final int height = Math.max(1, (int) Math.ceil(mRect.bottom + halfStroke) + 1 - mTrackLayerTop);
+
+        Canvas layerCanvas;
+        if (useBitmap) {
+            mTrackPicture = null;
+            if (mTrackBitmap == null || mTrackBitmap.getWidth() != width || mTrackBitmap.getHeight() != height) {
+                mTrackBitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+                mTrackCanvas = new Canvas(mTrackBitmap);
+            } else {
+                mTrackBitmap.eraseColor(Color.TRANSPARENT);
+            }
+            layerCanvas = mTrackCanvas;
+        } else {
+            mTrackBitmap = null;
+            mTrackCanvas = null;
+            if (mTrackPicture == null) {
+                mTrackPicture = new Picture();
+            }
+            layerCanvas = mTrackPicture.beginRecording(width, height);
+        }
+
+        layerCanvas.save();
+        layerCanvas.translate(0, -mTrackLayerTop);
+        SeekBarRenderer.drawTrack(layerCanvas, mRect, padding, getWidth() - padding, mTrackColor, paint);
+        layerCanvas.restore();
+
+        if (!useBitmap) {
+            mTrackPicture.endRecording();
+        }
+        mTrackLayerIsBitmap = useBitmap;
+        mTrackLayerValid = true;
+    }
 
+    /**
+     * Re-records the background line on the next draw. Called when its size or style changes.
+     */
+    private void invalidateTrackLayer() {
+        mTrackLayerValid = false;
+        invalidate();
+    }
+
+    /**
+     * Returns the left edge of the area covered by a thumb and its label.
+     *
+     * @param screenCoord The x-coordinate of the thumb in screen space.
+     * @param textWidth   The width of the thumb's label.
+     */
+    private float thumbLeft(float screenCoord, float textWidth) {
+        return Math.min(SeekBarRenderer.thumbLeft(screenCoord, thumbHalfWidth), screenCoord - textWidth * 0.5f);
+    }
+
+    /**
+     * Returns the right edge of the area covered by a thumb and its label.
+     *
+     * @param screenCoord The x-coordinate of the thumb in screen space.
+     * @param textWidth   The width of the thumb's label.
+     */
+    private float thumbRight(float screenCoord, float textWidth) {
+        float thumbImageWidth = thumbWidth;
+        if (thumbImage != null) {
+            thumbImageWidth = Math.max(thumbImageWidth, thumbImage.getWidth());
+        }
+        if (thumbImageRight != null) {
+            thumbImageWidth = Math.max(thumbImageWidth, thumbImageRight.getWidth());
+        }
+        return Math.max(screenCoord - thumbHalfWidth * 0.5f + thumbImageWidth, screenCoord + textWidth * 0.5f);
     }
 
     /**
-     * Overridden to save instance state when device orientation changes. This method is called automatically if you assign an id to the RangeSeekBar widget using the {@link #setId(int)} method. Other members of this class than the normalized min and max values don't need to be saved.
+     * Invalidates the union of the old and new area of every thumb and label that moved since the last draw, which
+     * also covers the changed part of the highlighted line.
+     */
+    private void invalidateChangedRegion() {
+        mInvalidatePending.set(false);
+
+        final RangeModel.Selection selection = mModel.getSelection();
+        final double min = selection.normalizedMin;
+        final double max = selection.normalizedMax;
+        if (Double.isNaN(mDrawnMin)) {
+            invalidate();
+            return;
+        }
+
+        updateValueLabels(min, max);
+
+        float left = Float.MAX_VALUE;
+        float right = -Float.MAX_VALUE;
+        if (min != mDrawnMin) {
+            float x = normalizedToScreen(min);
+            left = Math.min(mDrawnMinLeft, thumbLeft(x, mMinTextWidth));
+            right = Math.max(mDrawnMinRight, thumbRight(x, mMinTextWidth));
+        }
+        if (max != mDrawnMax) {
+            float x = normalizedToScreen(max);
+            left = Math.min(left, Math.min(mDrawnMaxLeft, thumbLeft(x, mMaxTextWidth)));
+            right = Math.max(right, Math.max(mDrawnMaxRight, thumbRight(x, mMaxTextWidth)));
+        }
+        if (left > right) {
+            return;
+        }
+
+        // one extra pixel on each side for anti-aliasing
+        mDirtyRect.set((int) Math.floor(left) - 1, 0, (int) Math.ceil(right) + 1, getHeight());
+        if (mShowInvalidatedRegions) {
+            // the previous overlay has to be erased as well
+            mDebugRect.union(mDirtyRect);
+            invalidate(mDebugRect.left, mDebugRect.top, mDebugRect.right, mDebugRect.bottom);
+            mDebugRect.set(mDirtyRect);
+        } else {
+            invalidate(mDirtyRect.left, mDirtyRect.top, mDirtyRect.right, mDirtyRect.bottom);
+        }
+    }
+
+    public boolean isShowInvalidatedRegions() {
+        return mShowInvalidatedRegions;
+    }
+
+    /**
+     * Debug option that outlines the region invalidated by the last value change. Only meaningful with software
+     * rendering, hardware accelerated views are always redrawn as a whole.
+     *
+     * @param show Should the invalidated regions be outlined?
+     */
+    public void setShowInvalidatedRegions(boolean show) {
+        mShowInvalidatedRegions = show;
+        if (show && mDebugPaint == null) {
+            mDebugPaint = new Paint();
+            mDebugPaint.setStyle(Paint.Style.STROKE);
+            mDebugPaint.setColor(Color.MAGENTA);
+        }
+        mDebugRect.setEmpty();
+        invalidate();
+    }
+
+    /**
+     * Rebuilds and measures the value labels, but only for values that changed since the last draw.
+     */
+    private void updateValueLabels(double min, double max) {
+        // NaN never equals, so cleared labels are always looked up
+        if (mMinTextNormalized != min) {
+            mMinLabel.set(getLabel(min));
+            mMinTextWidth = mMinLabel.width + mTextLateralPadding;
+            mMinTextNormalized = min;
+        }
+        if (mMaxTextNormalized != max) {
+            mMaxLabel.set(getLabel(max));
+            mMaxTextWidth = mMaxLabel.width + mTextLateralPadding;
+            mMaxTextNormalized = max;
+        }
+    }
+
+    /**
+     * Returns the cached label of the value at the given normalized position, formatting and measuring it on a cache miss.
+     */
+    private LabelCache.Label getLabel(double normalized) {
+        final long key = labelKey(normalized);
+        LabelCache.Label label = mLabelCache.get(key);
+        if (label == null) {
+            label = mLabelCache.put(key, formatLabel(normalizedToValue(normalized)),
+                    mTextPaint);
+        }
+        return label;
+    }
+
+    /**
+     * Returns a key identifying the value at the given normalized position: the exact value in units where there is
+     * one, the bits of the double value otherwise.
+     */
+    private long labelKey(double normalized) {
+        if (mFixedPoint.isEnabled()) {
+            return mFixedPoint.normalizedToUnits(normalized);
+        }
+        return Double.doubleToLongBits(normalizedToValuePrim(normalized));
+    }
+
+    private CharSequence formatLabel(Number value) {
+        if (mLabelFormatter != null) {
+            return mLabelFormatter.formatLabel(value);
+        }
+        return String.valueOf(value) + "%";
+    }
+
+    public LabelFormatter getLabelFormatter() {
+        return mLabelFormatter;
+    }
+
+    /**
+     * Sets how the selected values are shown. Formatted labels are cached with their widths, so the formatter is only
+     * called for values that are not in the cache. The widget will be invalidated and redrawn.
+     *
+     * @param formatter The formatter, or null for the default "value%" labels.
+     */
+    public void setLabelFormatter(LabelFormatter formatter) {
+        mLabelFormatter = formatter;
+        resetCachedValues();
+        invalidate();
+    }
+
+    /**
+     * Formats the labels of all selectable values up front, so that dragging never formats or measures text. Only
+     * done for small discrete ranges: ranges with steps, or integral and BigDecimal ranges, with at most
+     * {@link #MAX_PREFORMATTED_LABELS} values. The table is dropped when the number type, the decimal places or the
+     * formatter change.
+     *
+     * @return true if the labels were formatted, false if the range has too many values.
+     */
+    public boolean preformatLabels() {
+        long count = mStepSnapper.getSnapPointCount();
+        final boolean steps = count > 0;
+        if (!steps) {
+            count = mFixedPoint.isEnabled() ? mFixedPoint.getUnitCount() : -1;
+        }
+        if (count < 0 || count > MAX_PREFORMATTED_LABELS) {
+            return false;
+        }
+
+        long[] keys = new long[(int) count];
+        CharSequence[] texts = new CharSequence[(int) count];
+        for (int i = 0; i < count; i++) {
+            Number value;
+            if (steps) {
+                double normalized = mStepSnapper.getSnapPoint(i);
+                keys[i] = labelKey(normalized);
+                value = normalizedToValue(normalized);
+            } else {
+                keys[i] = mFixedPoint.unitAt(i);
+                value = mFixedPoint.toNumber(keys[i]);
+            }
+            texts[i] = formatLabel(value);
+        }
+        mLabelCache.setTable(keys, texts, mTextPaint);
+        return true;
+    }
+
+    /**
+     * Overridden to save instance state when device orientation changes. This method is called automatically if you assign an id to the RangeSeekBar widget using the {@link #setId(int)} method. The range, its number type and the selected values are saved, exactly for integral and BigDecimal ranges.
      */
     @Override
     protected Parcelable onSaveInstanceState() {
-        final Bundle bundle = new Bundle();
-        bundle.putParcelable("SUPER", super.onSaveInstanceState());
-        bundle.putDouble("MIN", normalizedMinValue);
-        bundle.putDouble("MAX", normalizedMaxValue);
-        return bundle;
+        final SavedState saved = new SavedState(super.onSaveInstanceState());
+        final State state = stateOf(mModel.getSelection());
+        saved.numberType = numberType.ordinal();
+        if (mFixedPoint.isEnabled()) {
+            saved.layout = SavedState.LAYOUT_UNITS;
+            saved.scale = mFixedPoint.getScale();
+            saved.rangeMin = mFixedPoint.toUnits(absoluteMinValue);
+            saved.rangeMax = mFixedPoint.toUnits(absoluteMaxValue);
+            saved.selectedMin = mFixedPoint.normalizedToUnits(state.normalizedMin);
+            saved.selectedMax = mFixedPoint.normalizedToUnits(state.normalizedMax);
+        } else if (numberType == NumberType.BIG_DECIMAL) {
+            // too many digits for long units
+            saved.layout = SavedState.LAYOUT_DECIMALS;
+            saved.scale = getDecimalPlaces();
+            saved.decimals = new String[]{absoluteMinValue.toString(), absoluteMaxValue.toString(),
+                    getSelectedMinValue(state).toString(), getSelectedMaxValue(state).toString()};
+        } else {
+            // the normalized values restore exactly the same selection
+            saved.layout = SavedState.LAYOUT_DOUBLES;
+            saved.rangeMin = Double.doubleToRawLongBits(absoluteMinValuePrim);
+            saved.rangeMax = Double.doubleToRawLongBits(absoluteMaxValuePrim);
+            saved.selectedMin = Double.doubleToRawLongBits(state.normalizedMin);
+            saved.selectedMax = Double.doubleToRawLongBits(state.normalizedMax);
+        }
+        return saved;
     }
 
     /**
-     * Overridden to restore instance state when device orientation changes. This method is called automatically if you assign an id to the RangeSeekBar widget using the {@link #setId(int)} method.
+     * Overridden to restore instance state when device orientation changes. This method is called automatically if you assign an id to the RangeSeekBar widget using the {@link #setId(int)} method. The range is only rebuilt if it differs from the current one.
      */
     @Override
+    @SuppressWarnings("unchecked")
     protected void onRestoreInstanceState(Parcelable parcel) {
-        final Bundle bundle = (Bundle) parcel;
-        super.onRestoreInstanceState(bundle.getParcelable("SUPER"));
-        normalizedMinValue = bundle.getDouble("MIN");
-        normalizedMaxValue = bundle.getDouble("MAX");
+        if (!(parcel instanceof SavedState)) {
+            super.onRestoreInstanceState(parcel);
+            return;
+        }
+        final SavedState saved = (SavedState) parcel;
+        super.onRestoreInstanceState(saved.getSuperState());
+        cancelAnimation();
+
+        final NumberType savedType = NUMBER_TYPES[saved.numberType];
+        final double min;
+        final double max;
+        switch (saved.layout) {
+            case SavedState.LAYOUT_UNITS:
+                if (savedType == NumberType.BIG_DECIMAL && saved.scale != getDecimalPlaces()) {
+                    setDecimalPlaces(saved.scale);
+                }
+                if (savedType != numberType || !mFixedPoint.isEnabled()
+                        || mFixedPoint.toUnits(absoluteMinValue) != saved.rangeMin
+                        || mFixedPoint.toUnits(absoluteMaxValue) != saved.rangeMax) {
+                    setRangeValues((T) FixedPointRange.toNumber(savedType, saved.rangeMin, saved.scale),
+                            (T) FixedPointRange.toNumber(savedType, saved.rangeMax, saved.scale));
+                }
+                // the model keeps full double precision, so the units read back exactly for spans up to 2^53
+                min = isRangeEmpty() ? 0d : mFixedPoint.unitsToNormalized(saved.selectedMin);
+                max = isRangeEmpty() ? 1d : mFixedPoint.unitsToNormalized(saved.selectedMax);
+                break;
+            case SavedState.LAYOUT_DECIMALS:
+                setDecimalPlaces(saved.scale);
+                setRangeValues((T) new BigDecimal(saved.decimals[0]), (T) new BigDecimal(saved.decimals[1]));
+                min = isRangeEmpty() ? 0d : valueToNormalized((T) new BigDecimal(saved.decimals[2]));
+                max = isRangeEmpty() ? 1d : valueToNormalized((T) new BigDecimal(saved.decimals[3]));
+                break;
+            default:
+                final double rangeMin = Double.longBitsToDouble(saved.rangeMin);
+                final double rangeMax = Double.longBitsToDouble(saved.rangeMax);
+                if (savedType != numberType || rangeMin != absoluteMinValuePrim || rangeMax != absoluteMaxValuePrim) {
+                    setRangeValues((T) savedType.toNumber(rangeMin), (T) savedType.toNumber(rangeMax));
+                }
+                min = Double.longBitsToDouble(saved.selectedMin);
+                max = Double.longBitsToDouble(saved.selectedMax);
+                break;
+        }
+        mModel.setNormalizedValues(min, max, mModelListener);
+        invalidate();
+    }
+
+    /**
+     * Saved range and selection with a fixed layout: number type, layout, scale and four longs, which are values in
+     * units of 10^-scale for integral and BigDecimal ranges, or the bits of the range and the normalized selection
+     * for floating point ranges. BigDecimal values that don't fit into long units are written as strings instead.
+     */
+    static class SavedState extends BaseSavedState {
+
+        static final int LAYOUT_DOUBLES = 0;
+        static final int LAYOUT_UNITS = 1;
+        static final int LAYOUT_DECIMALS = 2;
+
+        int numberType;
+        int layout;
+        int scale;
+        long rangeMin;
+        long rangeMax;
+        long selectedMin;
+        long selectedMax;
+        String[] decimals;
+
+        SavedState(Parcelable superState) {
+            super(superState);
+        }
+
+        private SavedState(Parcel in) {
+            super(in);
+            numberType = in.readInt();
+            layout = in.readInt();
+            scale = in.readInt();
+            if (layout == LAYOUT_DECIMALS) {
+                decimals = new String[4];
+                in.readStringArray(decimals);
+            } else {
+                rangeMin = in.readLong();
+                rangeMax = in.readLong();
+                selectedMin = in.readLong();
+                selectedMax = in.readLong();
+            }
+        }
+
+        @Override
+        public void writeToParcel(Parcel out, int flags) {
+            super.writeToParcel(out, flags);
+            out.writeInt(numberType);
+            out.writeInt(layout);
+            out.writeInt(scale);
+            if (layout == LAYOUT_DECIMALS) {
+                out.writeStringArray(decimals);
+            } else {
+                out.writeLong(rangeMin);
+                out.writeLong(rangeMax);
+                out.writeLong(selectedMin);
+                out.writeLong(selectedMax);
+            }
+        }
+
+        public static final Parcelable.Creator<SavedState> CREATOR = new Parcelable.Creator<SavedState>() {
+            @Override
+            public SavedState createFromParcel(Parcel in) {
+                return new SavedState(in);
+            }
+
+            @Override
+            public SavedState[] newArray(int size) {
+                return new SavedState[size];
+            }
+        };
     }
 
     /**
@@ -634,21 +2324,34 @@ public class CKSeekBar<T extends Number> extends AppCompatImageView {
      * @param canvas      The canvas to draw upon.
      */
     private void drawThumb(float screenCoord, boolean pressed, Canvas canvas, boolean areSelectedValuesDefault, boolean position) {
-        Bitmap buttonToDraw;
-        if (areSelectedValuesDefault) {
-            buttonToDraw = thumbDisabledImage;
-        } else {
-            buttonToDraw = pressed ? thumbPressedImage : thumbImage;
+        // true = right
+        Drawable drawable = position ? mRightThumbDrawable : mLeftThumbDrawable;
+        ThumbSource source = position ? mRightThumbSource : mLeftThumbSource;
+        Bitmap buttonToDraw = position ? thumbImageRight : thumbImage;
+        pressed &= !areSelectedValuesDefault;
+        if (pressed && (mPressedThumbDrawable != null || mPressedThumbSource != null)) {
+            drawable = mPressedThumbDrawable;
+            source = mPressedThumbSource;
+            buttonToDraw = thumbPressedImage;
         }
 
-        if(position){
-            // true = right
-            buttonToDraw = thumbImageRight;
-        }
+        // drawables that are not bitmaps are drawn as they are, bitmaps without a scaled image yet as a placeholder
+        SeekBarRenderer.drawThumb(canvas, buttonToDraw, source == null ? drawable : null,
+                SeekBarRenderer.thumbLeft(screenCoord, thumbHalfWidth), mTextOffset, thumbWidth, mThumbHeight,
+                pressed, paint);
+    }
 
-        canvas.drawBitmap(buttonToDraw, screenCoord - thumbHalfWidth * 0.5f,
-                mTextOffset,
-                paint);
+    /**
+     * Copies the look and geometry of this widget into a style for read-only drawables.
+     */
+    void copyStyleTo(CKSeekBarDrawable.Style style) {
+        style.setGeometry(padding, mTextOffset, thumbWidth, mThumbHeight, thumbHalfWidth, mRect.top, mRect.bottom,
+                mLineHeight, mThumbHeight + (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 40,
+                        getResources().getDisplayMetrics()));
+        style.setColors(mTrackColor, mLineHighlightColor, mLineHighlight);
+        style.setSingleThumb(mSingleThumb);
+        style.setThumbs(mLeftThumbDrawable, mLeftThumbSource, mRightThumbDrawable, mRightThumbSource,
+                mThumbMaxResolution);
     }
 
     /**
@@ -658,67 +2361,92 @@ public class CKSeekBar<T extends Number> extends AppCompatImageView {
      * @return The pressed thumb or null if none has been touched.
      */
     private Thumb evalPressedThumb(float touchX) {
-        Thumb result = null;
-        boolean minThumbPressed = isInThumbRange(touchX, normalizedMinValue);
-        boolean maxThumbPressed = isInThumbRange(touchX, normalizedMaxValue);
-        if (minThumbPressed && maxThumbPressed) {
-            // if both thumbs are pressed (they lie on top of each other), choose the one with more room to drag. this avoids "stalling" the thumbs in a corner, not being able to drag them apart anymore.
-            result = (touchX / getWidth() > 0.5f) ? Thumb.MIN : Thumb.MAX;
-        } else if (minThumbPressed) {
-            result = Thumb.MIN;
-        } else if (maxThumbPressed) {
-            result = Thumb.MAX;
-        }else if(!minThumbPressed && !maxThumbPressed){
-            result = evalAvePressdThumb(touchX);
-        }
-        return result;
-    }
-
-    private Thumb evalAvePressdThumb(float touchX){
-        float min = Math.abs(touchX - normalizedToScreen(normalizedMinValue));
-        float max = Math.abs(touchX - normalizedToScreen(normalizedMaxValue));
-
-        if(min == max){
-            if(touchX < max){
-                return Thumb.MIN;
-            }else {
-                return Thumb.MAX;
-            }
+        final RangeModel.Selection selection = mModel.getSelection();
+        int thumb = RangeMath.evalPressedThumb(touchX,
+                normalizedToScreen(selection.normalizedMin),
+                normalizedToScreen(selection.normalizedMax),
+                thumbHalfWidth,
+                getWidth());
+        if (thumb == RangeMath.THUMB_MIN) {
+            return Thumb.MIN;
+        } else if (thumb == RangeMath.THUMB_MAX) {
+            return Thumb.MAX;
         }
-        return min > max ? Thumb.MAX : Thumb.MIN;
-
-
+        return null;
     }
 
     /**
-     * Decides if given x-coordinate in screen space needs to be interpreted as "within" the normalized thumb x-coordinate.
+     * Sets normalized min value to value so that 0 <= value <= normalized max value <= 1. The View will get invalidated
+     * when calling this method and the value changed. Safe to call from any thread.
      *
-     * @param touchX               The x-coordinate in screen space to check.
-     * @param normalizedThumbValue The normalized x-coordinate of the thumb to check.
-     * @return true if x-coordinate is in thumb range, false otherwise.
+     * @param value The new normalized min value to set.
      */
-    private boolean isInThumbRange(float touchX, double normalizedThumbValue) {
-        return Math.abs(touchX - normalizedToScreen(normalizedThumbValue)) <= thumbHalfWidth;
+    private void setNormalizedMinValue(double value) {
+        if (updateNormalizedMinValue(value)) {
+            scheduleInvalidate();
+        }
     }
 
     /**
-     * Sets normalized min value to value so that 0 <= value <= normalized max value <= 1. The View will get invalidated when calling this method.
+     * Sets normalized min value like {@link #setNormalizedMinValue(double)} without invalidating the View.
      *
      * @param value The new normalized min value to set.
+     * @return true if the value changed.
      */
-    private void setNormalizedMinValue(double value) {
-        normalizedMinValue = Math.max(0d, Math.min(1d, Math.min(value, normalizedMaxValue)));
-        invalidate();
+    private boolean updateNormalizedMinValue(double value) {
+        return mModel.setNormalizedMin(mStepSnapper.snap(value), mModelListener);
     }
 
     /**
-     * Sets normalized max value to value so that 0 <= normalized min value <= value <= 1. The View will get invalidated when calling this method.
+     * Sets normalized max value to value so that 0 <= normalized min value <= value <= 1. The View will get invalidated
+     * when calling this method and the value changed. Safe to call from any thread.
      *
      * @param value The new normalized max value to set.
      */
     private void setNormalizedMaxValue(double value) {
-        normalizedMaxValue = Math.max(0d, Math.min(1d, Math.max(value, normalizedMinValue)));
-        invalidate();
+        if (updateNormalizedMaxValue(value)) {
+            scheduleInvalidate();
+        }
+    }
+
+    /**
+     * Sets normalized max value like {@link #setNormalizedMaxValue(double)} without invalidating the View.
+     *
+     * @param value The new normalized max value to set.
+     * @return true if the value changed.
+     */
+    private boolean updateNormalizedMaxValue(double value) {
+        return mModel.setNormalizedMax(mStepSnapper.snap(value), mModelListener);
+    }
+
+    /**
+     * Returns the selection of the model, with the boxed values built for it so far.
+     */
+    private State currentState() {
+        return stateOf(mModel.getSelection());
+    }
+
+    /**
+     * Returns the given selection with the boxed values built for it so far. Only used where values are boxed, the
+     * snapshot is built at most once per selection.
+     */
+    private State stateOf(RangeModel.Selection selection) {
+        State state = mState;
+        if (state.selection != selection) {
+            state = new State(selection);
+            mState = state;
+        }
+        return state;
+    }
+
+    /**
+     * Requests a redraw of the changed region on the next frame. Any number of calls before that frame result in a
+     * single invalidation.
+     */
+    private void scheduleInvalidate() {
+        if (mInvalidatePending.compareAndSet(false, true)) {
+            postOnAnimation(mInvalidateRunnable);
+        }
     }
 
     /**
@@ -729,9 +2457,23 @@ public class CKSeekBar<T extends Number> extends AppCompatImageView {
      */
     @SuppressWarnings("unchecked")
     private T normalizedToValue(double normalized) {
-        double v = absoluteMinValuePrim + normalized * (absoluteMaxValuePrim - absoluteMinValuePrim);
-        // TODO parameterize this rounding to allow variable decimal points
-        return (T) numberType.toNumber(Math.round(v * 100) / 100d);
+        if (mFixedPoint.isEnabled()) {
+            return (T) mFixedPoint.toNumber(mFixedPoint.normalizedToUnits(normalized));
+        }
+        return (T) numberType.toNumber(normalizedToValuePrim(normalized));
+    }
+
+    /**
+     * Converts a normalized value to a double in the value space between absolute minimum and maximum.
+     *
+     * @param normalized
+     * @return
+     */
+    private double normalizedToValuePrim(double normalized) {
+        if (mFixedPoint.isEnabled()) {
+            return mFixedPoint.unitsToDouble(mFixedPoint.normalizedToUnits(normalized));
+        }
+        return RangeMath.normalizedToValue(normalized, absoluteMinValuePrim, absoluteMaxValuePrim, mRoundingFactor);
     }
 
     /**
@@ -741,11 +2483,43 @@ public class CKSeekBar<T extends Number> extends AppCompatImageView {
      * @return The normalized double.
      */
     private double valueToNormalized(T value) {
-        if (0 == absoluteMaxValuePrim - absoluteMinValuePrim) {
-            // prevent division by zero, simply return 0.
-            return 0d;
+        if (mFixedPoint.isEnabled()) {
+            return mFixedPoint.unitsToNormalized(mFixedPoint.toUnits(value));
+        }
+        return valueToNormalized(value.doubleValue());
+    }
+
+    /**
+     * Converts the given value in whole numbers to a normalized double, exactly for integral and BigDecimal ranges.
+     *
+     * @param value The value to normalize.
+     * @return The normalized double.
+     */
+    private double longToNormalized(long value) {
+        if (mFixedPoint.isEnabled()) {
+            return mFixedPoint.unitsToNormalized(mFixedPoint.longToUnits(value));
         }
-        return (value.doubleValue() - absoluteMinValuePrim) / (absoluteMaxValuePrim - absoluteMinValuePrim);
+        return valueToNormalized((double) value);
+    }
+
+    /**
+     * Returns true if the absolute minimum and maximum are the same value, so that there is nothing to normalize.
+     */
+    private boolean isRangeEmpty() {
+        if (mFixedPoint.isEnabled()) {
+            return mFixedPoint.isEmpty();
+        }
+        return 0 == (absoluteMaxValuePrim - absoluteMinValuePrim);
+    }
+
+    /**
+     * Converts the given double value to a normalized double.
+     *
+     * @param value The value to normalize.
+     * @return The normalized double.
+     */
+    private double valueToNormalized(double value) {
+        return RangeMath.valueToNormalized(value, absoluteMinValuePrim, absoluteMaxValuePrim);
     }
 
     /**
@@ -755,7 +2529,7 @@ public class CKSeekBar<T extends Number> extends AppCompatImageView {
      * @return The converted value in screen space.
      */
     private float normalizedToScreen(double normalizedCoord) {
-        return (float) (padding + normalizedCoord * (getWidth() - 2 * padding));
+        return RangeMath.normalizedToScreen(normalizedCoord, padding, getWidth());
     }
 
     /**
@@ -765,14 +2539,7 @@ public class CKSeekBar<T extends Number> extends AppCompatImageView {
      * @return The normalized value.
      */
     private double screenToNormalized(float screenCoord) {
-        int width = getWidth();
-        if (width <= 2 * padding) {
-            // prevent division by zero, simply return 0.
-            return 0d;
-        } else {
-            double result = (screenCoord - padding) / (width - 2 * padding);
-            return Math.min(1d, Math.max(0d, result));
-        }
+        return RangeMath.screenToNormalized(screenCoord, padding, getWidth());
     }
 
     /**
@@ -787,64 +2554,43 @@ public class CKSeekBar<T extends Number> extends AppCompatImageView {
     }
 
     /**
-     * Thumb constants (min and max).
+     * Formats the selected values for the labels above the thumbs.
      */
-    private static enum Thumb {
-        MIN, MAX
+    public interface LabelFormatter {
+
+        public CharSequence formatLabel(Number value);
     }
 
     /**
-     * Utility enumeration used to convert between Numbers and doubles.
-     *
-     * @author Stephan Tittel (stephan.tittel@kom.tu-darmstadt.de)
+     * Callback listener interface to notify about changed range values without boxing them.
      */
-    private static enum NumberType {
-        LONG, DOUBLE, INTEGER, FLOAT, SHORT, BYTE, BIG_DECIMAL;
+    public interface OnRangeSeekBarPrimitiveChangeListener {
 
-        public static <E extends Number> NumberType fromNumber(E value) throws IllegalArgumentException {
-            if (value instanceof Long) {
-                return LONG;
-            }
-            if (value instanceof Double) {
-                return DOUBLE;
-            }
-            if (value instanceof Integer) {
-                return INTEGER;
-            }
-            if (value instanceof Float) {
-                return FLOAT;
-            }
-            if (value instanceof Short) {
-                return SHORT;
-            }
-            if (value instanceof Byte) {
-                return BYTE;
-            }
-            if (value instanceof BigDecimal) {
-                return BIG_DECIMAL;
-            }
-            throw new IllegalArgumentException("Number class '" + value.getClass().getName() + "' is not supported");
-        }
-
-        public Number toNumber(double value) {
-            switch (this) {
-                case LONG:
-                    return Long.valueOf((long) value);
-                case DOUBLE:
-                    return value;
-                case INTEGER:
-                    return Integer.valueOf((int) value);
-                case FLOAT:
-                    return Float.valueOf((float)value);
-                case SHORT:
-                    return Short.valueOf((short) value);
-                case BYTE:
-                    return Byte.valueOf((byte) value);
-                case BIG_DECIMAL:
-                    return BigDecimal.valueOf(value);
-            }
-            throw new InstantiationError("can't convert " + this + " to a Number object");
+        public void onValuesChanged(CKSeekBar<?> bar, double minValue, double maxValue, boolean aInUse);
+    }
+
+    /**
+     * Snapshot of the selected values with their boxed values, which are built on first use.
+     */
+    private static final class State {
+        final RangeModel.Selection selection;
+        final double normalizedMin;
+        final double normalizedMax;
+        Number minValue;
+        Number maxValue;
+
+        State(RangeModel.Selection selection) {
+            this.selection = selection;
+            this.normalizedMin = selection.normalizedMin;
+            this.normalizedMax = selection.normalizedMax;
         }
     }
 
+    /**
+     * Thumb constants (min and max).
+     */
+    private static enum Thumb {
+        MIN, MAX
+    }
+
 }
\ No newline at end of file
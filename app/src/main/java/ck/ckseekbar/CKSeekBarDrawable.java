@@ -0,0 +1,234 @@
+package ck.ckseekbar;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.Paint;
+import android.graphics.PixelFormat;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
+
+/**
+ * Read-only picture of a {@link CKSeekBar}: the track, the highlighted selection and the thumbs, drawn with the same
+ * geometry as a widget of the same width. Meant for long lists that only show ranges, where a widget per row would be
+ * too heavy, and can be drawn from an ItemDecoration or by any view.
+ * <br>
+ * All drawables created with one {@link Style} share its paints and thumb images, a drawable itself only holds the
+ * selection. Main thread only.
+ */
+public class CKSeekBarDrawable extends Drawable {
+
+    /**
+     * The look shared by any number of drawables, copied from a configured widget.
+     */
+    public static final class Style {
+
+        private final Paint mPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        // the line rectangle is only used while drawing, all drawables of the style draw on the main thread
+        private final RectF mLine = new RectF();
+
+        private float mPadding;
+        private int mTextOffset;
+        private float mThumbWidth;
+        private int mThumbHeight;
+        private float mThumbHalfWidth;
+        private int mHeight;
+        private int mTrackColor;
+        private int mHighlightColor;
+        private boolean mHighlight;
+        private boolean mSingleThumb;
+
+        private Drawable mLeftThumbDrawable;
+        private Drawable mRightThumbDrawable;
+        private Bitmap mLeftThumb;
+        private Bitmap mRightThumb;
+
+        /**
+         * Copies colors, thumbs and geometry of the given widget. The widget can be discarded afterwards, it does not
+         * have to be attached but has to be configured the way the drawables should look.
+         *
+         * @param template The widget to look like.
+         */
+        public Style(CKSeekBar<?> template) {
+            mPaint.setStyle(Paint.Style.FILL_AND_STROKE);
+            template.copyStyleTo(this);
+        }
+
+        /**
+         * Gives the thumb images back to the shared cache. Drawables of this style must not be drawn afterwards.
+         */
+        public void release() {
+            ThumbBitmapCache.release(mLeftThumb);
+            ThumbBitmapCache.release(mRightThumb);
+            mLeftThumb = null;
+            mRightThumb = null;
+        }
+
+        void setGeometry(float padding, int textOffset, float thumbWidth, int thumbHeight, float thumbHalfWidth,
+                         float lineTop, float lineBottom, float lineHeight, int height) {
+            mPadding = padding;
+            mTextOffset = textOffset;
+            mThumbWidth = thumbWidth;
+            mThumbHeight = thumbHeight;
+            mThumbHalfWidth = thumbHalfWidth;
+            mLine.top = lineTop;
+            mLine.bottom = lineBottom;
+            mPaint.setStrokeWidth(lineHeight);
+            mHeight = height;
+        }
+
+        void setColors(int trackColor, int highlightColor, boolean highlight) {
+            mTrackColor = trackColor;
+            mHighlightColor = highlightColor;
+            mHighlight = highlight;
+        }
+
+        void setSingleThumb(boolean singleThumb) {
+            mSingleThumb = singleThumb;
+        }
+
+        void setThumbs(Drawable left, ThumbSource leftSource, Drawable right, ThumbSource rightSource,
+                       int maxResolution) {
+            mLeftThumb = leftSource != null ? ThumbBitmapCache.acquire(leftSource, maxResolution) : null;
+            mRightThumb = rightSource != null ? ThumbBitmapCache.acquire(rightSource, maxResolution) : null;
+            mLeftThumbDrawable = leftSource == null ? copyOf(left) : null;
+            mRightThumbDrawable = rightSource == null ? copyOf(right) : null;
+        }
+
+        /**
+         * Returns a drawable sharing the state of the given one but not its callback, so that drawing it does not
+         * invalidate the template widget.
+         */
+        private static Drawable copyOf(Drawable drawable) {
+            if (drawable == null || drawable.getConstantState() == null) {
+                return drawable;
+            }
+            return drawable.getConstantState().newDrawable();
+        }
+    }
+
+    private final Style mStyle;
+    private double mNormalizedMin;
+    private double mNormalizedMax = 1d;
+    private int mAlpha = 255;
+    private ColorFilter mColorFilter;
+    private Paint mLayerPaint;
+    private final RectF mLayerBounds = new RectF();
+
+    public CKSeekBarDrawable(Style style) {
+        mStyle = style;
+    }
+
+    /**
+     * Sets the shown range and selection, the selection is clamped into the range.
+     *
+     * @param rangeMin    The absolute minimum value.
+     * @param rangeMax    The absolute maximum value.
+     * @param selectedMin The selected minimum value.
+     * @param selectedMax The selected maximum value.
+     */
+    public void setValues(double rangeMin, double rangeMax, double selectedMin, double selectedMax) {
+        double min = 0d;
+        double max = 1d;
+        if (rangeMin != rangeMax) {
+            min = Math.max(0d, Math.min(1d, RangeMath.valueToNormalized(selectedMin, rangeMin, rangeMax)));
+            max = Math.max(min, Math.min(1d, RangeMath.valueToNormalized(selectedMax, rangeMin, rangeMax)));
+        }
+        if (min != mNormalizedMin || max != mNormalizedMax) {
+            mNormalizedMin = min;
+            mNormalizedMax = max;
+            invalidateSelf();
+        }
+    }
+
+    public double getNormalizedMin() {
+        return mNormalizedMin;
+    }
+
+    public double getNormalizedMax() {
+        return mNormalizedMax;
+    }
+
+    @SuppressWarnings("deprecation")
+    private static int saveLayer(Canvas canvas, RectF bounds, Paint paint) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            return canvas.saveLayer(bounds, paint);
+        }
+        // the overload without flags is missing before API 21
+        return canvas.saveLayer(bounds, paint, Canvas.ALL_SAVE_FLAG);
+    }
+
+    @Override
+    public void draw(Canvas canvas) {
+        final Rect bounds = getBounds();
+        final Style style = mStyle;
+        final int width = bounds.width();
+        final boolean layer = mAlpha != 255 || mColorFilter != null;
+
+        final int saveCount;
+        if (layer) {
+            if (mLayerPaint == null) {
+                mLayerPaint = new Paint();
+            }
+            mLayerPaint.setAlpha(mAlpha);
+            mLayerPaint.setColorFilter(mColorFilter);
+            mLayerBounds.set(bounds);
+            saveCount = saveLayer(canvas, mLayerBounds, mLayerPaint);
+        } else {
+            saveCount = canvas.save();
+        }
+        canvas.translate(bounds.left, bounds.top);
+
+        final float minX = RangeMath.normalizedToScreen(mNormalizedMin, style.mPadding, width);
+        final float maxX = RangeMath.normalizedToScreen(mNormalizedMax, style.mPadding, width);
+        SeekBarRenderer.drawTrack(canvas, style.mLine, style.mPadding, width - style.mPadding, style.mTrackColor,
+                style.mPaint);
+        if (style.mHighlight) {
+            SeekBarRenderer.drawHighlight(canvas, style.mLine, minX, maxX, style.mHighlightColor, style.mPaint);
+        }
+        if (!style.mSingleThumb) {
+            SeekBarRenderer.drawThumb(canvas, style.mLeftThumb, style.mLeftThumbDrawable,
+                    SeekBarRenderer.thumbLeft(minX, style.mThumbHalfWidth), style.mTextOffset, style.mThumbWidth,
+                    style.mThumbHeight, false, style.mPaint);
+        }
+        SeekBarRenderer.drawThumb(canvas, style.mRightThumb, style.mRightThumbDrawable,
+                SeekBarRenderer.thumbLeft(maxX, style.mThumbHalfWidth), style.mTextOffset, style.mThumbWidth,
+                style.mThumbHeight, false, style.mPaint);
+
+        canvas.restoreToCount(saveCount);
+    }
+
+    /**
+     * Returns the height of a widget with the thumbs of the style.
+     */
+    @Override
+    public int getIntrinsicHeight() {
+        return mStyle.mHeight;
+    }
+
+    @Override
+    public void setAlpha(int alpha) {
+        if (alpha != mAlpha) {
+            mAlpha = alpha;
+            invalidateSelf();
+        }
+    }
+
+    @Override
+    public int getAlpha() {
+        return mAlpha;
+    }
+
+    @Override
+    public void setColorFilter(ColorFilter colorFilter) {
+        mColorFilter = colorFilter;
+        invalidateSelf();
+    }
+
+    @Override
+    public int getOpacity() {
+        return PixelFormat.TRANSLUCENT;
+    }
+}
@@ -0,0 +1,264 @@
+package ck.ckseekbar;
+
+import java.util.ArrayList;
+
+/**
+ * Links several {@link CKSeekBar} instances, e.g. the bands of an equalizer, so that they are updated together and
+ * reported with one event.
+ * <br>
+ * Every member contributes its selected max value, the value of single thumb bars. Values set on the group are
+ * applied in one transaction: constraints between the members are applied to all values in one pass, every member
+ * redraws at most once per frame and the group listener is called once with all values. The listeners of the members
+ * are not called for values set by the group. When a member notifies its listeners about a move by the user, the other
+ * members are adjusted to the constraint around it and the group listener is called as well.
+ * <br>
+ * A move reads the values and ranges of all members, so values or ranges set directly on a member count as well, and
+ * only sets the members the constraint changed.
+ * <br>
+ * Main thread only.
+ */
+public class CKSeekBarGroup {
+
+    public static final int CONSTRAINT_NONE = 0;
+    /**
+     * Every value is at least the value of the member before it.
+     */
+    public static final int CONSTRAINT_ASCENDING = 1;
+    /**
+     * Every value is at most the value of the member before it.
+     */
+    public static final int CONSTRAINT_DESCENDING = 2;
+    /**
+     * The values add up to the sum given to {@link #setFixedSum(double)}, as far as the ranges of the members allow.
+     */
+    public static final int CONSTRAINT_FIXED_SUM = 3;
+
+    /**
+     * Callback listener interface to notify about changed values of the group.
+     */
+    public interface OnGroupChangeListener {
+
+        /**
+         * @param values The values of the members in the order they were added. The array is reused, copy it to keep
+         *               the values beyond the call.
+         * @param aInUse Is the user still touching a member?
+         */
+        public void onGroupValuesChanged(CKSeekBarGroup group, double[] values, boolean aInUse);
+    }
+
+    private final ArrayList<CKSeekBar<?>> mSeekBars = new ArrayList<>();
+    private double[] mValues = new double[0];
+    private double[] mMins = new double[0];
+    private double[] mMaxs = new double[0];
+    // the values the members showed before the constraint was applied to a move
+    private double[] mShown = new double[0];
+    private int mConstraint = CONSTRAINT_NONE;
+    private double mFixedSum;
+    private int mUpdateDepth;
+    private boolean mApplying;
+    private OnGroupChangeListener mListener;
+
+    /**
+     * Adds a seek bar at the end of the group, removing it from a group it was in before.
+     */
+    public void addSeekBar(CKSeekBar<?> bar) {
+        if (bar.mGroup != null) {
+            bar.mGroup.removeSeekBar(bar);
+        }
+        bar.mGroup = this;
+        mSeekBars.add(bar);
+        ensureCapacity(mSeekBars.size());
+    }
+
+    public void removeSeekBar(CKSeekBar<?> bar) {
+        if (mSeekBars.remove(bar)) {
+            bar.mGroup = null;
+        }
+    }
+
+    public int getSeekBarCount() {
+        return mSeekBars.size();
+    }
+
+    public CKSeekBar<?> getSeekBar(int index) {
+        return mSeekBars.get(index);
+    }
+
+    public void setOnGroupChangeListener(OnGroupChangeListener listener) {
+        mListener = listener;
+    }
+
+    public int getConstraint() {
+        return mConstraint;
+    }
+
+    /**
+     * Sets the constraint between the values and applies it to the current values.
+     *
+     * @param constraint One of {@link #CONSTRAINT_NONE}, {@link #CONSTRAINT_ASCENDING}, {@link #CONSTRAINT_DESCENDING}
+     *                   or {@link #CONSTRAINT_FIXED_SUM}.
+     */
+    public void setConstraint(int constraint) {
+        mConstraint = constraint;
+        beginUpdate();
+        endUpdate();
+    }
+
+    public double getFixedSum() {
+        return mFixedSum;
+    }
+
+    /**
+     * Makes the values add up to the given sum and applies {@link #CONSTRAINT_FIXED_SUM}.
+     */
+    public void setFixedSum(double sum) {
+        mFixedSum = sum;
+        setConstraint(CONSTRAINT_FIXED_SUM);
+    }
+
+    /**
+     * Copies the current values of the members into the given array.
+     *
+     * @param out The array to fill, or null.
+     * @return The given array, or a new one if it is too small.
+     */
+    public double[] getValues(double[] out) {
+        final int count = mSeekBars.size();
+        if (out == null || out.length < count) {
+            out = new double[count];
+        }
+        for (int i = 0; i < count; i++) {
+            out[i] = mSeekBars.get(i).getSelectedMaxValuePrim();
+        }
+        return out;
+    }
+
+    /**
+     * Sets the values of all members in one transaction.
+     *
+     * @param values The values in the order the members were added, at least one per member.
+     * @throws IllegalArgumentException if there are fewer values than members.
+     */
+    public void setValues(double[] values) {
+        if (values.length < mSeekBars.size()) {
+            throw new IllegalArgumentException(values.length + " values for " + mSeekBars.size() + " seek bars");
+        }
+        beginUpdate();
+        System.arraycopy(values, 0, mValues, 0, mSeekBars.size());
+        endUpdate();
+    }
+
+    /**
+     * Starts a transaction. Values set with {@link #setValue(int, double)} are applied by the matching
+     * {@link #endUpdate()}. Transactions can be nested, the outermost one applies the values.
+     */
+    public void beginUpdate() {
+        if (mUpdateDepth++ == 0) {
+            readMembers();
+        }
+    }
+
+    /**
+     * Sets the value of one member within a transaction.
+     */
+    public void setValue(int index, double value) {
+        if (mUpdateDepth == 0) {
+            throw new IllegalStateException("setValue outside of beginUpdate/endUpdate");
+        }
+        if (index < 0 || index >= mSeekBars.size()) {
+            throw new IndexOutOfBoundsException("no seek bar at " + index);
+        }
+        mValues[index] = value;
+    }
+
+    /**
+     * Ends a transaction, applying the values and notifying the group listener once when the outermost one ends.
+     */
+    public void endUpdate() {
+        if (mUpdateDepth == 0) {
+            throw new IllegalStateException("endUpdate without beginUpdate");
+        }
+        if (--mUpdateDepth == 0) {
+            apply(-1, false);
+        }
+    }
+
+    /**
+     * Called by a member after the user changed its values.
+     */
+    void onSeekBarChanged(CKSeekBar<?> bar, boolean aInUse) {
+        if (mApplying || mUpdateDepth > 0) {
+            return;
+        }
+        // members may have been changed directly since the last event, the constraint works on what they show now
+        readMembers();
+        apply(mSeekBars.indexOf(bar), aInUse);
+    }
+
+    /**
+     * Reads the values and ranges of all members.
+     */
+    private void readMembers() {
+        final int count = mSeekBars.size();
+        for (int i = 0; i < count; i++) {
+            CKSeekBar<?> bar = mSeekBars.get(i);
+            double min = bar.getAbsoluteMinValue().doubleValue();
+            double max = bar.getAbsoluteMaxValue().doubleValue();
+            mMins[i] = Math.min(min, max);
+            mMaxs[i] = Math.max(min, max);
+            mValues[i] = bar.getSelectedMaxValuePrim();
+        }
+    }
+
+    /**
+     * Applies the constraint to the values, keeping the pinned one, sets them on the members and notifies the group
+     * listener. A transaction has no pinned value and sets all members, a move only sets those the constraint changed.
+     */
+    private void apply(int pinned, boolean aInUse) {
+        final int count = mSeekBars.size();
+        if (pinned >= 0) {
+            System.arraycopy(mValues, 0, mShown, 0, count);
+        }
+        switch (mConstraint) {
+            case CONSTRAINT_ASCENDING:
+                GroupConstraints.ascending(mValues, count, pinned);
+                break;
+            case CONSTRAINT_DESCENDING:
+                GroupConstraints.descending(mValues, count, pinned);
+                break;
+            case CONSTRAINT_FIXED_SUM:
+                GroupConstraints.fixedSum(mValues, mMins, mMaxs, count, pinned, mFixedSum);
+                break;
+        }
+
+        mApplying = true;
+        try {
+            for (int i = 0; i < count; i++) {
+                if (i != pinned && (pinned < 0 || mValues[i] != mShown[i])) {
+                    CKSeekBar<?> bar = mSeekBars.get(i);
+                    bar.setSelectedMaxValuePrim(mValues[i]);
+                    // the members round and snap, report what they actually show
+                    mValues[i] = bar.getSelectedMaxValuePrim();
+                }
+            }
+        } finally {
+            mApplying = false;
+        }
+
+        if (mListener != null) {
+            mListener.onGroupValuesChanged(this, mValues, aInUse);
+        }
+    }
+
+    private void ensureCapacity(int count) {
+        if (mValues.length < count) {
+            int capacity = Math.max(count, 2 * mValues.length);
+            double[] values = new double[capacity];
+            System.arraycopy(mValues, 0, values, 0, mValues.length);
+            mValues = values;
+            mMins = new double[capacity];
+            mMaxs = new double[capacity];
+            mShown = new double[capacity];
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package ck.ckseekbar;
+
+/**
+ * Per instance performance counters of a {@link CKSeekBar}, see {@link CKSeekBar#setMetricsEnabled(boolean)}.
+ * <br>
+ * Values are recorded on the UI thread and should be read there as well. Recording never allocates.
+ */
+public final class CKSeekBarMetrics {
+
+    private static final long NANOS_PER_SECOND = 1000000000L;
+
+    private final Histogram mDrawTimeNanos = new Histogram();
+    private final Histogram mTouchTimeNanos = new Histogram();
+    private final Histogram mDispatchLatencyMillis = new Histogram();
+    private long mInvalidateCount;
+    private long mThumbBitmapBytes;
+
+    private long mDrawWindowStart = -1;
+    private int mDrawWindowCount;
+    private float mDrawsPerSecond;
+
+    CKSeekBarMetrics() {
+    }
+
+    /**
+     * Returns the time spent in onDraw, in nanoseconds.
+     */
+    public Histogram getDrawTimeNanos() {
+        return mDrawTimeNanos;
+    }
+
+    /**
+     * Returns the time spent in onTouchEvent, in nanoseconds.
+     */
+    public Histogram getTouchTimeNanos() {
+        return mTouchTimeNanos;
+    }
+
+    /**
+     * Returns the time from a MotionEvent to the listener callback it caused, in milliseconds.
+     */
+    public Histogram getDispatchLatencyMillis() {
+        return mDispatchLatencyMillis;
+    }
+
+    public long getDrawCount() {
+        return mDrawTimeNanos.getCount();
+    }
+
+    /**
+     * Returns the number of draws during the last full second in which the widget was drawn.
+     */
+    public float getDrawsPerSecond() {
+        return mDrawsPerSecond;
+    }
+
+    public long getTouchEventCount() {
+        return mTouchTimeNanos.getCount();
+    }
+
+    public long getInvalidateCount() {
+        return mInvalidateCount;
+    }
+
+    /**
+     * Returns the number of bytes held by the thumb images the widget currently draws.
+     */
+    public long getThumbBitmapBytes() {
+        return mThumbBitmapBytes;
+    }
+
+    /**
+     * Clears all counters and histograms, except the thumb image size.
+     */
+    public void reset() {
+        mDrawTimeNanos.reset();
+        mTouchTimeNanos.reset();
+        mDispatchLatencyMillis.reset();
+        mInvalidateCount = 0;
+        mDrawWindowStart = -1;
+        mDrawWindowCount = 0;
+        mDrawsPerSecond = 0;
+    }
+
+    void recordDraw(long startNanos, long endNanos) {
+        mDrawTimeNanos.record(endNanos - startNanos);
+
+        if (mDrawWindowStart < 0 || startNanos - mDrawWindowStart >= NANOS_PER_SECOND) {
+            if (mDrawWindowStart >= 0) {
+                mDrawsPerSecond = mDrawWindowCount * (float) NANOS_PER_SECOND / (startNanos - mDrawWindowStart);
+            }
+            mDrawWindowStart = startNanos;
+            mDrawWindowCount = 0;
+        }
+        mDrawWindowCount++;
+    }
+
+    void recordTouch(long startNanos, long endNanos) {
+        mTouchTimeNanos.record(endNanos - startNanos);
+    }
+
+    void recordDispatch(long latencyMillis) {
+        mDispatchLatencyMillis.record(latencyMillis);
+    }
+
+    void recordInvalidate() {
+        mInvalidateCount++;
+    }
+
+    void setThumbBitmapBytes(long bytes) {
+        mThumbBitmapBytes = bytes;
+    }
+
+    /**
+     * Histogram with power of two buckets: bucket n counts values in [2^(n-1), 2^n).
+     */
+    public static final class Histogram {
+
+        private final long[] mBuckets = new long[Long.SIZE + 1];
+        private long mCount;
+        private long mSum;
+        private long mMax;
+
+        Histogram() {
+        }
+
+        void record(long value) {
+            if (value < 0) {
+                value = 0;
+            }
+            mBuckets[Long.SIZE - Long.numberOfLeadingZeros(value)]++;
+            mCount++;
+            mSum += value;
+            mMax = Math.max(mMax, value);
+        }
+
+        void reset() {
+            for (int i = 0; i < mBuckets.length; i++) {
+                mBuckets[i] = 0;
+            }
+            mCount = 0;
+            mSum = 0;
+            mMax = 0;
+        }
+
+        public long getCount() {
+            return mCount;
+        }
+
+        public long getMax() {
+            return mMax;
+        }
+
+        public double getMean() {
+            return mCount == 0 ? 0d : mSum / (double) mCount;
+        }
+
+        /**
+         * Returns an upper bound of the given percentile, precise to a power of two.
+         *
+         * @param percentile The percentile, between 0 and 100.
+         * @return The upper bound of the bucket the percentile falls into, never more than the maximum.
+         */
+        public long getPercentile(double percentile) {
+            if (mCount == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(percentile / 100d * mCount);
+            long seen = 0;
+            for (int i = 0; i < mBuckets.length; i++) {
+                seen += mBuckets[i];
+                if (seen >= rank && seen > 0) {
+                    long upper = i == 0 ? 0 : (i >= Long.SIZE - 1 ? Long.MAX_VALUE : (1L << i) - 1);
+                    return Math.min(upper, mMax);
+                }
+            }
+            return mMax;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package ck.ckseekbar;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Exact value arithmetic for integral and {@link BigDecimal} ranges.
+ * <br>
+ * Values are held as long units of 10^-scale, scale 0 for integral types and the number of decimal places for
+ * BigDecimal. A value is the range minimum plus the normalized position times the span, so only the offset into the
+ * range goes through a double: Long ranges far beyond 2^53, like nanosecond timestamps, stay exact as long as the
+ * span itself fits into 2^53 units. Nothing is allocated, BigDecimal values are only built by
+ * {@link #toNumber(long)}.
+ * <br>
+ * Double and Float ranges, and BigDecimal ranges that don't fit into long units, are not handled
+ * ({@link #isEnabled()} returns false).
+ */
+final class FixedPointRange {
+
+    private static final double TWO_POW_63 = 0x1p63;
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L,
+            10000000000L, 100000000000L, 1000000000000L, 10000000000000L, 100000000000000L,
+            1000000000000000L, 10000000000000000L, 100000000000000000L, 1000000000000000000L};
+
+    private boolean mEnabled;
+    private NumberType mNumberType;
+    private int mScale;
+    private long mMinUnits;
+    private long mMaxUnits;
+    // true if the maximum is smaller than the minimum
+    private boolean mDescending;
+    // distance between min and max as an unsigned number, a full Long range does not fit into a signed long
+    private double mSpan;
+
+    /**
+     * Sets up the arithmetic for the given range.
+     *
+     * @param min           The absolute minimum value.
+     * @param max           The absolute maximum value.
+     * @param numberType    The type of the values.
+     * @param decimalPlaces The number of decimal places kept for BigDecimal values.
+     */
+    void setRange(Number min, Number max, NumberType numberType, int decimalPlaces) {
+        mNumberType = numberType;
+        mEnabled = false;
+        switch (numberType) {
+            case LONG:
+            case INTEGER:
+            case SHORT:
+            case BYTE:
+                mScale = 0;
+                mMinUnits = min.longValue();
+                mMaxUnits = max.longValue();
+                break;
+            case BIG_DECIMAL:
+                if (decimalPlaces < 0 || decimalPlaces >= POWERS_OF_TEN.length) {
+                    return;
+                }
+                mScale = decimalPlaces;
+                BigDecimal minUnits = ((BigDecimal) min).setScale(decimalPlaces, RoundingMode.HALF_UP);
+                BigDecimal maxUnits = ((BigDecimal) max).setScale(decimalPlaces, RoundingMode.HALF_UP);
+                if (minUnits.unscaledValue().bitLength() > 63 || maxUnits.unscaledValue().bitLength() > 63) {
+                    return;
+                }
+                mMinUnits = minUnits.unscaledValue().longValue();
+                mMaxUnits = maxUnits.unscaledValue().longValue();
+                break;
+            default:
+                return;
+        }
+        mDescending = mMaxUnits < mMinUnits;
+        mSpan = unsignedToDouble(mDescending ? mMinUnits - mMaxUnits : mMaxUnits - mMinUnits);
+        mEnabled = true;
+    }
+
+    boolean isEnabled() {
+        return mEnabled;
+    }
+
+    /**
+     * Returns the number of decimal places of a unit.
+     */
+    int getScale() {
+        return mScale;
+    }
+
+    /**
+     * Returns true if the minimum and maximum are the same value.
+     */
+    boolean isEmpty() {
+        return mSpan == 0d;
+    }
+
+    /**
+     * Returns the number of distinct values in the range.
+     *
+     * @return The number of values, or -1 if there are more than {@link Long#MAX_VALUE}.
+     */
+    long getUnitCount() {
+        long span = mDescending ? mMinUnits - mMaxUnits : mMaxUnits - mMinUnits;
+        return span < 0 || span == Long.MAX_VALUE ? -1 : span + 1;
+    }
+
+    /**
+     * Returns the value in units at the given distance from the minimum, towards the maximum.
+     */
+    long unitAt(long index) {
+        return mDescending ? mMinUnits - index : mMinUnits + index;
+    }
+
+    /**
+     * Converts a normalized position to the nearest value in units.
+     */
+    long normalizedToUnits(double normalized) {
+        if (normalized <= 0d || mSpan == 0d) {
+            return mMinUnits;
+        }
+        if (normalized >= 1d) {
+            return mMaxUnits;
+        }
+        // the offset is unsigned, the addition wraps into the right value
+        long offset = doubleToUnsigned(Math.rint(normalized * mSpan));
+        return mDescending ? mMinUnits - offset : mMinUnits + offset;
+    }
+
+    /**
+     * Converts a value in units to a normalized position.
+     */
+    double unitsToNormalized(long units) {
+        if (mSpan == 0d) {
+            return 0d;
+        }
+        if (compareUnits(units, mMinUnits) <= 0) {
+            return 0d;
+        }
+        if (compareUnits(units, mMaxUnits) >= 0) {
+            return 1d;
+        }
+        return unsignedToDouble(mDescending ? mMinUnits - units : units - mMinUnits) / mSpan;
+    }
+
+    /**
+     * Converts a value to units, rounding BigDecimal values to the scale.
+     */
+    long toUnits(Number value) {
+        if (mNumberType == NumberType.BIG_DECIMAL) {
+            BigDecimal units = ((BigDecimal) value).setScale(mScale, RoundingMode.HALF_UP);
+            if (units.unscaledValue().bitLength() > 63) {
+                return units.signum() < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+            }
+            return units.unscaledValue().longValue();
+        }
+        return value.longValue();
+    }
+
+    /**
+     * Converts a value in whole numbers to units.
+     */
+    long longToUnits(long value) {
+        long factor = POWERS_OF_TEN[mScale];
+        if (factor == 1L) {
+            return value;
+        }
+        long limit = Long.MAX_VALUE / factor;
+        if (value > limit) {
+            return Long.MAX_VALUE;
+        }
+        if (value < -limit) {
+            return Long.MIN_VALUE;
+        }
+        return value * factor;
+    }
+
+    /**
+     * Converts a value in units to whole numbers, truncating decimal places.
+     */
+    long unitsToLong(long units) {
+        return units / POWERS_OF_TEN[mScale];
+    }
+
+    double unitsToDouble(long units) {
+        return mScale == 0 ? units : units / (double) POWERS_OF_TEN[mScale];
+    }
+
+    /**
+     * Boxes a value in units into the Number type of the range.
+     */
+    Number toNumber(long units) {
+        return toNumber(mNumberType, units, mScale);
+    }
+
+    /**
+     * Boxes a value in units of 10^-scale into the given Number type.
+     */
+    static Number toNumber(NumberType numberType, long units, int scale) {
+        switch (numberType) {
+            case LONG:
+                return Long.valueOf(units);
+            case INTEGER:
+                return Integer.valueOf((int) units);
+            case SHORT:
+                return Short.valueOf((short) units);
+            case BYTE:
+                return Byte.valueOf((byte) units);
+            case BIG_DECIMAL:
+                return BigDecimal.valueOf(units, scale);
+        }
+        throw new IllegalStateException("no fixed point arithmetic for " + numberType);
+    }
+
+    /**
+     * Compares in the direction of the range, which may go from a larger to a smaller value.
+     */
+    private int compareUnits(long a, long b) {
+        int result = a < b ? -1 : (a == b ? 0 : 1);
+        return mDescending ? -result : result;
+    }
+
+    private static double unsignedToDouble(long value) {
+        if (value >= 0) {
+            return value;
+        }
+        return ((value >>> 1) | (value & 1)) * 2d;
+    }
+
+    private static long doubleToUnsigned(double value) {
+        if (value < TWO_POW_63) {
+            return (long) value;
+        }
+        return (long) (value - TWO_POW_63) ^ Long.MIN_VALUE;
+    }
+}
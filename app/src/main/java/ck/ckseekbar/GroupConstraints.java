@@ -0,0 +1,80 @@
+package ck.ckseekbar;
+
+/**
+ * Constraints between the values of a {@link CKSeekBarGroup}, applied to all values in one pass.
+ * <br>
+ * Kept free of Android classes so it can be tested on a plain JVM.
+ */
+final class GroupConstraints {
+
+    private GroupConstraints() {
+    }
+
+    /**
+     * Makes the values ascending. The pinned value stays, values after it are raised and values before it lowered.
+     *
+     * @param values The values to adjust.
+     * @param count  The number of values.
+     * @param pinned The index of the value that must not change, or -1.
+     */
+    static void ascending(double[] values, int count, int pinned) {
+        for (int i = Math.max(1, pinned + 1); i < count; i++) {
+            values[i] = Math.max(values[i], values[i - 1]);
+        }
+        for (int i = pinned - 1; i >= 0; i--) {
+            values[i] = Math.min(values[i], values[i + 1]);
+        }
+    }
+
+    /**
+     * Makes the values descending, see {@link #ascending(double[], int, int)}.
+     */
+    static void descending(double[] values, int count, int pinned) {
+        for (int i = Math.max(1, pinned + 1); i < count; i++) {
+            values[i] = Math.min(values[i], values[i - 1]);
+        }
+        for (int i = pinned - 1; i >= 0; i--) {
+            values[i] = Math.max(values[i], values[i + 1]);
+        }
+    }
+
+    /**
+     * Spreads the difference to the given sum evenly over all values but the pinned one, within their limits. The sum
+     * is only reached as far as the limits allow.
+     *
+     * @param values The values to adjust.
+     * @param mins   The smallest allowed value of each value.
+     * @param maxs   The largest allowed value of each value.
+     * @param count  The number of values.
+     * @param pinned The index of the value that must not change, or -1.
+     * @param sum    The sum the values should have.
+     */
+    static void fixedSum(double[] values, double[] mins, double[] maxs, int count, int pinned, double sum) {
+        // every pass either reaches the sum or moves at least one value onto its limit
+        for (int pass = 0; pass < count; pass++) {
+            double total = 0d;
+            for (int i = 0; i < count; i++) {
+                total += values[i];
+            }
+            final double difference = sum - total;
+            if (difference == 0d) {
+                return;
+            }
+            int free = 0;
+            for (int i = 0; i < count; i++) {
+                if (i != pinned && (difference > 0d ? values[i] < maxs[i] : values[i] > mins[i])) {
+                    free++;
+                }
+            }
+            if (free == 0) {
+                return;
+            }
+            final double share = difference / free;
+            for (int i = 0; i < count; i++) {
+                if (i != pinned && (difference > 0d ? values[i] < maxs[i] : values[i] > mins[i])) {
+                    values[i] = Math.max(mins[i], Math.min(maxs[i], values[i] + share));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package ck.ckseekbar;
+
+import android.graphics.Paint;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Formatted value labels with their measured widths, so that a value is formatted and measured once and drawn with
+ * {@link android.graphics.Canvas#drawText(char[], int, int, float, float, Paint)} afterwards.
+ * <br>
+ * Labels are keyed by a long identifying the value. Recently used labels are kept in a small direct mapped cache whose
+ * slots and buffers are reused. A table of labels for every selectable value of a small discrete range can be added
+ * with {@link #setTable(long[], CharSequence[], Paint)}, those labels are never evicted.
+ */
+final class LabelCache {
+
+    static final int SIZE = 32;
+
+    static final class Label {
+        long key;
+        char[] text = new char[16];
+        int length;
+        float width;
+
+        /**
+         * Copies the given label into this one, reusing the text buffer if it is large enough.
+         */
+        void set(Label other) {
+            if (text.length < other.length) {
+                text = new char[other.text.length];
+            }
+            System.arraycopy(other.text, 0, text, 0, other.length);
+            key = other.key;
+            length = other.length;
+            width = other.width;
+        }
+    }
+
+    private final Label[] mSlots = new Label[SIZE];
+    private final boolean[] mValid = new boolean[SIZE];
+    private Label[] mTable;
+    private long[] mTableKeys;
+
+    LabelCache() {
+        for (int i = 0; i < SIZE; i++) {
+            mSlots[i] = new Label();
+        }
+    }
+
+    /**
+     * Returns the cached label for the given key.
+     *
+     * @return The label, or null if it has to be formatted with {@link #put(long, CharSequence, Paint)}.
+     */
+    Label get(long key) {
+        if (mTableKeys != null) {
+            int index = Arrays.binarySearch(mTableKeys, key);
+            if (index >= 0) {
+                return mTable[index];
+            }
+        }
+        int slot = slotOf(key);
+        if (mValid[slot] && mSlots[slot].key == key) {
+            return mSlots[slot];
+        }
+        return null;
+    }
+
+    /**
+     * Stores and measures a formatted label, replacing the label that used the same slot.
+     *
+     * @return The stored label.
+     */
+    Label put(long key, CharSequence text, Paint paint) {
+        int slot = slotOf(key);
+        Label label = mSlots[slot];
+        fill(label, key, text, paint);
+        mValid[slot] = true;
+        return label;
+    }
+
+    /**
+     * Replaces the table of permanent labels.
+     *
+     * @param keys  The keys of the labels.
+     * @param texts The formatted labels, in the order of the keys.
+     * @param paint The paint the labels are drawn with.
+     */
+    void setTable(long[] keys, CharSequence[] texts, Paint paint) {
+        Label[] table = new Label[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            table[i] = new Label();
+            fill(table[i], keys[i], texts[i], paint);
+        }
+        Arrays.sort(table, new Comparator<Label>() {
+            @Override
+            public int compare(Label a, Label b) {
+                return a.key < b.key ? -1 : (a.key == b.key ? 0 : 1);
+            }
+        });
+        long[] tableKeys = new long[table.length];
+        for (int i = 0; i < table.length; i++) {
+            tableKeys[i] = table[i].key;
+        }
+        mTable = table;
+        mTableKeys = tableKeys;
+    }
+
+    boolean hasTable() {
+        return mTableKeys != null;
+    }
+
+    /**
+     * Drops all labels, including the table.
+     */
+    void clear() {
+        Arrays.fill(mValid, false);
+        mTable = null;
+        mTableKeys = null;
+    }
+
+    private static void fill(Label label, long key, CharSequence text, Paint paint) {
+        int length = text.length();
+        if (label.text.length < length) {
+            label.text = new char[Math.max(length, 2 * label.text.length)];
+        }
+        for (int i = 0; i < length; i++) {
+            label.text[i] = text.charAt(i);
+        }
+        label.key = key;
+        label.length = length;
+        label.width = paint.measureText(label.text, 0, length);
+    }
+
+    private static int slotOf(long key) {
+        int hash = (int) (key ^ (key >>> 32));
+        hash ^= (hash >>> 16);
+        return hash & (SIZE - 1);
+    }
+}
@@ -41,44 +41,47 @@ class PixelUtil {
         return dp;
     }
 
+    /**
+     * Converts dp to pixels with the logical display density, the way resources are scaled, rather than the physical
+     * horizontal dpi.
+     */
+    static int dpToPxByDensity(Context context, float dp) {
+        return Math.round(dp * context.getResources().getDisplayMetrics().density);
+    }
+
     static float getPixelScaleFactor(Context context) {
         DisplayMetrics displayMetrics = context.getResources().getDisplayMetrics();
         return (displayMetrics.xdpi / DisplayMetrics.DENSITY_DEFAULT);
     }
 
     static Bitmap resizeBitmap(Bitmap source, int maxResolution) {
-
-
-
-
         int width = source.getWidth();
         int height = source.getHeight();
-        int newWidth = width;
-        int newHeight = height;
-        float rate = 0.0f;
-
-        if(width > height)
-        {
-            if(maxResolution < width)
-            {
-                rate = maxResolution / (float) width;
-                newHeight = (int) (height * rate);
-                newWidth = maxResolution;
-            }
-        }
-        else
-        {
-            if(maxResolution < height)
-            {
-                rate = maxResolution / (float) height;
-                newWidth = (int) (width * rate);
-                newHeight = maxResolution;
-            }
-        }
 
-        return Bitmap.createScaledBitmap(source, newWidth, newHeight, true);
+        return Bitmap.createScaledBitmap(source,
+                scaledWidth(width, height, maxResolution),
+                scaledHeight(width, height, maxResolution),
+                true);
+    }
 
+    /**
+     * Returns the width {@link #resizeBitmap(Bitmap, int)} scales an image of the given size to.
+     */
+    static int scaledWidth(int width, int height, int maxResolution) {
+        if (width > height) {
+            return maxResolution < width ? maxResolution : width;
+        }
+        return maxResolution < height ? (int) (width * (maxResolution / (float) height)) : width;
     }
 
+    /**
+     * Returns the height {@link #resizeBitmap(Bitmap, int)} scales an image of the given size to.
+     */
+    static int scaledHeight(int width, int height, int maxResolution) {
+        if (width > height) {
+            return maxResolution < width ? (int) (height * (maxResolution / (float) width)) : height;
+        }
+        return maxResolution < height ? maxResolution : height;
+    }
 
 }
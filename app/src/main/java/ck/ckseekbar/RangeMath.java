@@ -0,0 +1,150 @@
+package ck.ckseekbar;
+
+/**
+ * Conversions between value space, normalized space and screen space, and thumb hit testing.
+ * <br>
+ * Kept free of Android classes so it can be measured and tested on a plain JVM.
+ */
+final class RangeMath {
+
+    static final int THUMB_NONE = -1;
+    static final int THUMB_MIN = 0;
+    static final int THUMB_MAX = 1;
+
+    private RangeMath() {
+    }
+
+    /**
+     * Converts a normalized value to a value between absolute minimum and maximum, rounded to two decimals.
+     *
+     * @param normalized The normalized value to convert.
+     * @param min        The absolute minimum value.
+     * @param max        The absolute maximum value.
+     * @return The converted value.
+     */
+    static double normalizedToValue(double normalized, double min, double max) {
+        return normalizedToValue(normalized, min, max, 100d);
+    }
+
+    /**
+     * Converts a normalized value to a value between absolute minimum and maximum, rounded with the given factor.
+     *
+     * @param normalized     The normalized value to convert.
+     * @param min            The absolute minimum value.
+     * @param max            The absolute maximum value.
+     * @param roundingFactor 10 to the power of the number of decimal places to keep.
+     * @return The converted value.
+     */
+    static double normalizedToValue(double normalized, double min, double max, double roundingFactor) {
+        double v = min + normalized * (max - min);
+        return Math.round(v * roundingFactor) / roundingFactor;
+    }
+
+    /**
+     * Converts a value between absolute minimum and maximum to a normalized value.
+     *
+     * @param value The value to normalize.
+     * @param min   The absolute minimum value.
+     * @param max   The absolute maximum value.
+     * @return The normalized value, 0 if minimum and maximum are equal.
+     */
+    static double valueToNormalized(double value, double min, double max) {
+        if (0 == max - min) {
+            // prevent division by zero, simply return 0.
+            return 0d;
+        }
+        return (value - min) / (max - min);
+    }
+
+    /**
+     * Converts a normalized value into screen space.
+     *
+     * @param normalizedCoord The normalized value to convert.
+     * @param padding         The space left of the minimum and right of the maximum position.
+     * @param width           The width of the widget.
+     * @return The converted value in screen space.
+     */
+    static float normalizedToScreen(double normalizedCoord, float padding, int width) {
+        return (float) (padding + normalizedCoord * (width - 2 * padding));
+    }
+
+    /**
+     * Converts screen space x-coordinates into normalized values.
+     *
+     * @param screenCoord The x-coordinate in screen space to convert.
+     * @param padding     The space left of the minimum and right of the maximum position.
+     * @param width       The width of the widget.
+     * @return The normalized value, clamped to 0..1.
+     */
+    static double screenToNormalized(float screenCoord, float padding, int width) {
+        if (width <= 2 * padding) {
+            // prevent division by zero, simply return 0.
+            return 0d;
+        } else {
+            double result = (screenCoord - padding) / (width - 2 * padding);
+            return Math.min(1d, Math.max(0d, result));
+        }
+    }
+
+    /**
+     * Decides which thumb is touched by the given x-coordinate. If neither thumb is within reach, the closer one is
+     * chosen.
+     *
+     * @param touchX         The x-coordinate of a touch event in screen space.
+     * @param minScreen      The x-coordinate of the min thumb in screen space.
+     * @param maxScreen      The x-coordinate of the max thumb in screen space.
+     * @param thumbHalfWidth The distance from a thumb within which it counts as touched.
+     * @param width          The width of the widget.
+     * @return {@link #THUMB_MIN} or {@link #THUMB_MAX}.
+     */
+    static int evalPressedThumb(float touchX, float minScreen, float maxScreen, float thumbHalfWidth, int width) {
+        boolean minThumbPressed = Math.abs(touchX - minScreen) <= thumbHalfWidth;
+        boolean maxThumbPressed = Math.abs(touchX - maxScreen) <= thumbHalfWidth;
+        if (minThumbPressed && maxThumbPressed) {
+            // if both thumbs are pressed (they lie on top of each other), choose the one with more room to drag. this avoids "stalling" the thumbs in a corner, not being able to drag them apart anymore.
+            return (touchX / width > 0.5f) ? THUMB_MIN : THUMB_MAX;
+        } else if (minThumbPressed) {
+            return THUMB_MIN;
+        } else if (maxThumbPressed) {
+            return THUMB_MAX;
+        }
+
+        float min = Math.abs(touchX - minScreen);
+        float max = Math.abs(touchX - maxScreen);
+        if (min == max) {
+            return touchX < max ? THUMB_MIN : THUMB_MAX;
+        }
+        return min > max ? THUMB_MAX : THUMB_MIN;
+    }
+
+    /**
+     * Finds the thumb closest to the given position with a binary search. Among thumbs on top of each other, the one
+     * that can move towards the position is chosen: the last one if the position is above them, the first one if it is
+     * below.
+     *
+     * @param sortedPositions The thumb positions in ascending order.
+     * @param count           The number of thumbs, at least 1.
+     * @param position        The position to look up, in the same space as the thumb positions.
+     * @return The index of the closest thumb.
+     */
+    static int nearestThumb(double[] sortedPositions, int count, double position) {
+        // first thumb at or above the position
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedPositions[mid] < position) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        if (low == 0) {
+            return 0;
+        }
+        if (low == count) {
+            return count - 1;
+        }
+        return position - sortedPositions[low - 1] <= sortedPositions[low] - position ? low - 1 : low;
+    }
+}
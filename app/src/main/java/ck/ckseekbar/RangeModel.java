@@ -0,0 +1,190 @@
+package ck.ckseekbar;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Selected range shown by one or more {@link CKSeekBar} instances, see {@link CKSeekBar#setRangeModel(RangeModel)}.
+ * Several views can show the same selection, and any thread can change it.
+ * <br>
+ * The selection is held as normalized values with 0 <= min <= max <= 1, at full double precision so that integral
+ * ranges of up to 2^53 values convert back exactly. Both are replaced together as one immutable snapshot with
+ * compare-and-set, so concurrent updates are never lost and readers always see a consistent pair. A change allocates
+ * that snapshot and nothing else. Converting to and from range values is left to the views, which know their Number
+ * type, decimal places and steps.
+ */
+public final class RangeModel {
+
+    /**
+     * Callback listener interface to notify about changes of the selection.
+     */
+    public interface OnRangeModelChangeListener {
+
+        /**
+         * Called on the thread that changed the selection. A change on another thread may already have replaced the
+         * given values.
+         */
+        public void onRangeModelChanged(RangeModel model, double normalizedMin, double normalizedMax);
+    }
+
+    /**
+     * An immutable selection, a new instance for every change.
+     */
+    static final class Selection {
+        final double normalizedMin;
+        final double normalizedMax;
+
+        Selection(double normalizedMin, double normalizedMax) {
+            this.normalizedMin = normalizedMin;
+            this.normalizedMax = normalizedMax;
+        }
+    }
+
+    private final AtomicReference<Selection> mSelection;
+    private final CopyOnWriteArrayList<OnRangeModelChangeListener> mListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates a model with everything selected.
+     */
+    public RangeModel() {
+        this(0d, 1d);
+    }
+
+    public RangeModel(double normalizedMin, double normalizedMax) {
+        mSelection = new AtomicReference<>(clamp(normalizedMin, normalizedMax));
+    }
+
+    public double getNormalizedMin() {
+        return mSelection.get().normalizedMin;
+    }
+
+    public double getNormalizedMax() {
+        return mSelection.get().normalizedMax;
+    }
+
+    /**
+     * Returns the current selection, to read both values of the same state.
+     */
+    Selection getSelection() {
+        return mSelection.get();
+    }
+
+    /**
+     * Sets the normalized min value so that 0 <= value <= normalized max value.
+     *
+     * @param value The new normalized min value.
+     * @return true if the value changed.
+     */
+    public boolean setNormalizedMin(double value) {
+        return setNormalizedMin(value, null);
+    }
+
+    /**
+     * Sets the normalized min value like {@link #setNormalizedMin(double)}, notifying all listeners but the origin.
+     */
+    boolean setNormalizedMin(double value, OnRangeModelChangeListener origin) {
+        Selection selection;
+        Selection newSelection;
+        do {
+            selection = mSelection.get();
+            double min = Math.max(0d, Math.min(1d, Math.min(value, selection.normalizedMax)));
+            if (min == selection.normalizedMin) {
+                return false;
+            }
+            newSelection = new Selection(min, selection.normalizedMax);
+        } while (!mSelection.compareAndSet(selection, newSelection));
+        notifyListeners(newSelection, origin);
+        return true;
+    }
+
+    /**
+     * Sets the normalized max value so that normalized min value <= value <= 1.
+     *
+     * @param value The new normalized max value.
+     * @return true if the value changed.
+     */
+    public boolean setNormalizedMax(double value) {
+        return setNormalizedMax(value, null);
+    }
+
+    /**
+     * Sets the normalized max value like {@link #setNormalizedMax(double)}, notifying all listeners but the origin.
+     */
+    boolean setNormalizedMax(double value, OnRangeModelChangeListener origin) {
+        Selection selection;
+        Selection newSelection;
+        do {
+            selection = mSelection.get();
+            double max = Math.max(0d, Math.min(1d, Math.max(value, selection.normalizedMin)));
+            if (max == selection.normalizedMax) {
+                return false;
+            }
+            newSelection = new Selection(selection.normalizedMin, max);
+        } while (!mSelection.compareAndSet(selection, newSelection));
+        notifyListeners(newSelection, origin);
+        return true;
+    }
+
+    /**
+     * Replaces both normalized values, swapping them if min is larger than max.
+     *
+     * @param min The new normalized min value.
+     * @param max The new normalized max value.
+     * @return true if any of the values changed.
+     */
+    public boolean setNormalizedValues(double min, double max) {
+        return setNormalizedValues(min, max, null);
+    }
+
+    /**
+     * Replaces both normalized values like {@link #setNormalizedValues(double, double)}, notifying all listeners but
+     * the origin.
+     */
+    boolean setNormalizedValues(double min, double max, OnRangeModelChangeListener origin) {
+        final double low = Math.max(0d, Math.min(1d, Math.min(min, max)));
+        final double high = Math.max(0d, Math.min(1d, Math.max(min, max)));
+        Selection selection;
+        Selection newSelection = null;
+        do {
+            selection = mSelection.get();
+            if (selection.normalizedMin == low && selection.normalizedMax == high) {
+                return false;
+            }
+            if (newSelection == null) {
+                newSelection = new Selection(low, high);
+            }
+        } while (!mSelection.compareAndSet(selection, newSelection));
+        notifyListeners(newSelection, origin);
+        return true;
+    }
+
+    public void addOnRangeModelChangeListener(OnRangeModelChangeListener listener) {
+        mListeners.addIfAbsent(listener);
+    }
+
+    public void removeOnRangeModelChangeListener(OnRangeModelChangeListener listener) {
+        mListeners.remove(listener);
+    }
+
+    private void notifyListeners(Selection selection, OnRangeModelChangeListener origin) {
+        // indexed, an iterator would be allocated for every change
+        for (int i = 0, count = mListeners.size(); i < count; i++) {
+            final OnRangeModelChangeListener listener;
+            try {
+                listener = mListeners.get(i);
+            } catch (IndexOutOfBoundsException e) {
+                // removed by another thread meanwhile
+                break;
+            }
+            if (listener != origin) {
+                listener.onRangeModelChanged(this, selection.normalizedMin, selection.normalizedMax);
+            }
+        }
+    }
+
+    private static Selection clamp(double min, double max) {
+        double low = Math.max(0d, Math.min(1d, Math.min(min, max)));
+        double high = Math.max(0d, Math.min(1d, Math.max(min, max)));
+        return new Selection(low, high);
+    }
+}
@@ -0,0 +1,74 @@
+package ck.ckseekbar;
+
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+
+/**
+ * Drives the animations of all {@link CKSeekBar} instances from a single Choreographer frame callback, so that any
+ * number of animating widgets cost one callback per frame. Stepping an animation allocates the new selection of the
+ * {@link RangeModel} and nothing else, apart from value labels that are not cached yet, which
+ * {@link CKSeekBar#preformatLabels()} avoids for small ranges.
+ * <br>
+ * Main thread only.
+ */
+final class SeekBarAnimator implements Choreographer.FrameCallback {
+
+    private static SeekBarAnimator sInstance;
+
+    private final ArrayList<CKSeekBar<?>> mBars = new ArrayList<>();
+    private boolean mScheduled;
+
+    private SeekBarAnimator() {
+    }
+
+    static SeekBarAnimator getInstance() {
+        if (sInstance == null) {
+            sInstance = new SeekBarAnimator();
+        }
+        return sInstance;
+    }
+
+    /**
+     * Starts driving the animation of the given widget from the next frame on.
+     */
+    void start(CKSeekBar<?> bar) {
+        if (!mBars.contains(bar)) {
+            mBars.add(bar);
+        }
+        if (!mScheduled) {
+            mScheduled = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    /**
+     * Stops driving the animation of the given widget.
+     */
+    void cancel(CKSeekBar<?> bar) {
+        mBars.remove(bar);
+    }
+
+    boolean isRunning(CKSeekBar<?> bar) {
+        return mBars.contains(bar);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        mScheduled = false;
+        // backwards, so that finished widgets can be removed on the way; listeners may start or cancel others
+        for (int i = mBars.size() - 1; i >= 0; i--) {
+            if (i >= mBars.size()) {
+                continue;
+            }
+            CKSeekBar<?> bar = mBars.get(i);
+            if (!bar.stepAnimation(frameTimeNanos)) {
+                mBars.remove(bar);
+            }
+        }
+        if (!mBars.isEmpty() && !mScheduled) {
+            mScheduled = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package ck.ckseekbar;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.graphics.drawable.Drawable;
+
+/**
+ * Track, highlight and thumb drawing shared by {@link CKSeekBar} and {@link CKSeekBarDrawable}, so that the widget
+ * and its read-only drawable look the same.
+ */
+final class SeekBarRenderer {
+
+    static final float TRACK_CORNER_RADIUS = 5f;
+
+    private static final int[] PRESSED_STATE_SET = {android.R.attr.state_pressed};
+    private static final int[] EMPTY_STATE_SET = {};
+
+    private SeekBarRenderer() {
+    }
+
+    /**
+     * Returns the left edge of a thumb image centered around the given x-coordinate.
+     *
+     * @param screenCoord    The x-coordinate of the selected value in screen space.
+     * @param thumbHalfWidth The horizontal space reserved for half a thumb.
+     */
+    static float thumbLeft(float screenCoord, float thumbHalfWidth) {
+        return screenCoord - thumbHalfWidth * 0.5f;
+    }
+
+    /**
+     * Draws the background line between the given edges.
+     */
+    static void drawTrack(Canvas canvas, RectF line, float left, float right, int color, Paint paint) {
+        line.left = left;
+        line.right = right;
+        paint.setColor(color);
+        canvas.drawRoundRect(line, TRACK_CORNER_RADIUS, TRACK_CORNER_RADIUS, paint);
+    }
+
+    /**
+     * Draws the line between the selected values.
+     */
+    static void drawHighlight(Canvas canvas, RectF line, float left, float right, int color, Paint paint) {
+        line.left = left;
+        line.right = right;
+        paint.setColor(color);
+        canvas.drawRoundRect(line, 0f, 0f, paint);
+    }
+
+    /**
+     * Draws a thumb: the scaled bitmap if there is one, otherwise the drawable in its pressed or normal state, or a
+     * placeholder circle if neither is available yet.
+     *
+     * @param bitmap   The scaled thumb image, or null.
+     * @param drawable The thumb drawn as it is, or null if it is a bitmap.
+     * @param left     The left edge of the thumb.
+     * @param top      The top edge of the thumb.
+     * @param width    The width of the thumb.
+     * @param height   The height of the thumb.
+     * @param pressed  Whether the thumb is pressed.
+     * @param paint    The paint the bitmap or placeholder is drawn with.
+     */
+    static void drawThumb(Canvas canvas, Bitmap bitmap, Drawable drawable, float left, float top, float width,
+                          float height, boolean pressed, Paint paint) {
+        if (bitmap != null) {
+            canvas.drawBitmap(bitmap, left, top, paint);
+        } else if (drawable != null) {
+            drawable.setBounds((int) left, (int) top, (int) left + (int) width, (int) top + (int) height);
+            drawable.setState(pressed ? PRESSED_STATE_SET : EMPTY_STATE_SET);
+            drawable.draw(canvas);
+        } else {
+            canvas.drawCircle(left + width * 0.5f, top + height * 0.5f, height * 0.5f, paint);
+        }
+    }
+}
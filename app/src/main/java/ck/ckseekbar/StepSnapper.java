@@ -0,0 +1,191 @@
+package ck.ckseekbar;
+
+import java.util.Arrays;
+
+/**
+ * Snaps normalized values to discrete steps, either evenly spaced steps of a fixed size or a sorted list of custom
+ * values.
+ * <br>
+ * The step geometry is precomputed whenever the range, the steps or the track size change, so snapping a touch sample
+ * costs a multiplication and a rounding for even steps and a binary search for custom steps.
+ */
+final class StepSnapper {
+
+    private double mMin;
+    private double mMax;
+    private double mStep;
+    private double[] mCustomValues;
+
+    private long mStepCount;
+    private double mNormalizedStep;
+    private double mStepsPerNormalized;
+    private double[] mCustomNormalized;
+
+    private float mPadding;
+    private int mWidth;
+    private double mStepsPerPixel;
+
+    boolean isEnabled() {
+        return mStepCount > 0 || mCustomNormalized != null;
+    }
+
+    void setRange(double min, double max) {
+        mMin = min;
+        mMax = max;
+        update();
+    }
+
+    double getStep() {
+        return mStep;
+    }
+
+    /**
+     * Uses evenly spaced steps, starting at the minimum of the range.
+     *
+     * @param step The step size in value space, 0 to disable snapping.
+     */
+    void setStep(double step) {
+        mStep = step;
+        mCustomValues = null;
+        update();
+    }
+
+    /**
+     * Uses the given values as steps.
+     *
+     * @param values The allowed values, null or empty to disable snapping.
+     */
+    void setSteps(double[] values) {
+        mStep = 0;
+        if (values == null || values.length == 0) {
+            mCustomValues = null;
+        } else {
+            mCustomValues = values.clone();
+            Arrays.sort(mCustomValues);
+        }
+        update();
+    }
+
+    /**
+     * Precomputes the screen space geometry for {@link #snapScreen(float)}.
+     *
+     * @param padding The space left of the minimum and right of the maximum position.
+     * @param width   The width of the widget.
+     */
+    void setTrackGeometry(float padding, int width) {
+        mPadding = padding;
+        mWidth = width;
+        float trackWidth = width - 2 * padding;
+        mStepsPerPixel = trackWidth > 0 ? mStepsPerNormalized / trackWidth : 0;
+    }
+
+    private void update() {
+        double span = mMax - mMin;
+        mStepCount = 0;
+        mNormalizedStep = 0;
+        mStepsPerNormalized = 0;
+        mCustomNormalized = null;
+
+        if (mCustomValues != null) {
+            mCustomNormalized = new double[mCustomValues.length];
+            for (int i = 0; i < mCustomValues.length; i++) {
+                double normalized = RangeMath.valueToNormalized(mCustomValues[i], mMin, mMax);
+                mCustomNormalized[i] = Math.max(0d, Math.min(1d, normalized));
+            }
+        } else if (mStep > 0 && span > 0) {
+            // a tiny tolerance so that spans which are an exact multiple of the step keep their last step
+            mStepCount = (long) Math.floor(span / mStep + 1e-9);
+            mNormalizedStep = mStep / span;
+            mStepsPerNormalized = span / mStep;
+        }
+        setTrackGeometry(mPadding, mWidth);
+    }
+
+    /**
+     * Returns the step closest to the given normalized value.
+     *
+     * @param normalized The normalized value to snap.
+     * @return The normalized value of the closest step, or the given value if snapping is disabled.
+     */
+    double snap(double normalized) {
+        if (mCustomNormalized != null) {
+            return snapCustom(normalized);
+        }
+        if (mStepCount == 0) {
+            return normalized;
+        }
+        return snapIndex(Math.round(normalized * mStepsPerNormalized), normalized);
+    }
+
+    /**
+     * Returns the step closest to the given x-coordinate, using the geometry passed to
+     * {@link #setTrackGeometry(float, int)}.
+     *
+     * @param screenCoord The x-coordinate in screen space.
+     * @return The normalized value of the closest step.
+     */
+    double snapScreen(float screenCoord) {
+        if (mCustomNormalized != null || mStepsPerPixel == 0) {
+            return snap(RangeMath.screenToNormalized(screenCoord, mPadding, mWidth));
+        }
+        double normalized = Math.max(0d, Math.min(1d, (screenCoord - mPadding) * mStepsPerPixel * mNormalizedStep));
+        return snapIndex(Math.round((screenCoord - mPadding) * mStepsPerPixel), normalized);
+    }
+
+    /**
+     * Returns the number of distinct positions snapping can produce.
+     *
+     * @return The number of steps including the maximum, 0 if snapping is disabled.
+     */
+    long getSnapPointCount() {
+        if (mCustomNormalized != null) {
+            return mCustomNormalized.length;
+        }
+        if (mStepCount == 0) {
+            return 0;
+        }
+        return mStepCount * mNormalizedStep < 1d ? mStepCount + 2 : mStepCount + 1;
+    }
+
+    /**
+     * Returns a position snapping can produce, bit for bit as {@link #snap(double)} returns it.
+     *
+     * @param index The index of the position, below {@link #getSnapPointCount()}.
+     * @return The normalized position.
+     */
+    double getSnapPoint(long index) {
+        if (mCustomNormalized != null) {
+            return mCustomNormalized[(int) index];
+        }
+        return index <= mStepCount ? index * mNormalizedStep : 1d;
+    }
+
+    private double snapIndex(long index, double normalized) {
+        if (index <= 0) {
+            return 0d;
+        }
+        if (index < mStepCount) {
+            return index * mNormalizedStep;
+        }
+        // past the last full step the maximum of the range is a step as well
+        double last = mStepCount * mNormalizedStep;
+        return normalized - last < 1d - normalized ? last : 1d;
+    }
+
+    private double snapCustom(double normalized) {
+        int index = Arrays.binarySearch(mCustomNormalized, normalized);
+        if (index >= 0) {
+            return normalized;
+        }
+        int insertion = -index - 1;
+        if (insertion == 0) {
+            return mCustomNormalized[0];
+        }
+        if (insertion == mCustomNormalized.length) {
+            return mCustomNormalized[mCustomNormalized.length - 1];
+        }
+        double below = mCustomNormalized[insertion - 1];
+        double above = mCustomNormalized[insertion];
+        return normalized - below <= above - normalized ? below : above;
+    }
+}
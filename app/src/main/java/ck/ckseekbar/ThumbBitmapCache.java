@@ -0,0 +1,138 @@
+package ck.ckseekbar;
+
+import android.graphics.Bitmap;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Process wide cache of scaled thumb images, shared by all {@link CKSeekBar} instances.
+ * <br>
+ * Scaled bitmaps are keyed by their source image and target resolution and are reference counted.
+ * Bitmaps that are still acquired are never evicted, released ones are kept in least recently used
+ * order until the cache grows beyond {@link #getMaxCachedBytes()}.
+ */
+final class ThumbBitmapCache {
+
+    static final long DEFAULT_MAX_CACHED_BYTES = 4 * 1024 * 1024;
+
+    private static final LinkedHashMap<Key, Entry> sEntries = new LinkedHashMap<>(16, 0.75f, true);
+    private static final IdentityHashMap<Bitmap, Entry> sEntriesByBitmap = new IdentityHashMap<>();
+    private static long sMaxCachedBytes = DEFAULT_MAX_CACHED_BYTES;
+    private static long sCachedBytes;
+
+    private ThumbBitmapCache() {
+    }
+
+    /**
+     * Returns the given image scaled to the given resolution, sharing an already scaled copy if there is one.
+     * Every call has to be balanced with a call to {@link #release(Bitmap)}.
+     *
+     * @param source        The image to scale.
+     * @param maxResolution The maximum width or height of the scaled image.
+     * @return The scaled image.
+     */
+    static synchronized Bitmap acquire(ThumbSource source, int maxResolution) {
+        // images are never scaled up, so every larger resolution shares the unscaled copy
+        int resolution = Math.min(maxResolution, Math.max(source.getWidth(), source.getHeight()));
+        Key key = new Key(source.getKey(), resolution);
+        Entry entry = sEntries.get(key);
+        if (entry == null) {
+            entry = new Entry(source.createScaled(resolution));
+            sEntries.put(key, entry);
+            sEntriesByBitmap.put(entry.bitmap, entry);
+            sCachedBytes += entry.byteCount;
+        }
+        entry.refCount++;
+        trimToSize();
+        return entry.bitmap;
+    }
+
+    /**
+     * Gives back an image returned by {@link #acquire(ThumbSource, int)}. Images that are not held by anyone
+     * anymore may be evicted.
+     *
+     * @param bitmap The scaled image to give back.
+     */
+    static synchronized void release(Bitmap bitmap) {
+        Entry entry = sEntriesByBitmap.get(bitmap);
+        if (entry == null || entry.refCount == 0) {
+            return;
+        }
+        entry.refCount--;
+        if (entry.refCount == 0) {
+            trimToSize();
+        }
+    }
+
+    /**
+     * Returns the number of bytes held by all cached images, acquired or not.
+     */
+    static synchronized long getCachedBytes() {
+        return sCachedBytes;
+    }
+
+    static synchronized long getMaxCachedBytes() {
+        return sMaxCachedBytes;
+    }
+
+    static synchronized void setMaxCachedBytes(long maxCachedBytes) {
+        sMaxCachedBytes = maxCachedBytes;
+        trimToSize();
+    }
+
+    /**
+     * Evicts released images, least recently used first, until the cache fits into its limit.
+     */
+    private static void trimToSize() {
+        Iterator<Map.Entry<Key, Entry>> iterator = sEntries.entrySet().iterator();
+        while (sCachedBytes > sMaxCachedBytes && iterator.hasNext()) {
+            Entry entry = iterator.next().getValue();
+            if (entry.refCount == 0) {
+                iterator.remove();
+                sEntriesByBitmap.remove(entry.bitmap);
+                sCachedBytes -= entry.byteCount;
+            }
+        }
+    }
+
+    private static final class Key {
+        final Object source;
+        final int maxResolution;
+
+        Key(Object source, int maxResolution) {
+            this.source = source;
+            this.maxResolution = maxResolution;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return maxResolution == other.maxResolution && source.equals(other.source);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * source.hashCode() + maxResolution;
+        }
+    }
+
+    private static final class Entry {
+        final Bitmap bitmap;
+        final int byteCount;
+        int refCount;
+
+        Entry(Bitmap bitmap) {
+            this.bitmap = bitmap;
+            this.byteCount = bitmap.getByteCount();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package ck.ckseekbar;
+
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
+import android.util.DisplayMetrics;
+import android.util.TypedValue;
+
+/**
+ * Where a thumb image comes from: a bitmap that is already decoded, or a bitmap resource that is decoded straight to
+ * the size it is drawn at.
+ * <br>
+ * Resources are only measured when the source is created, reading the image header. The pixels are decoded by
+ * {@link #createScaled(int)}, subsampled with {@link BitmapFactory.Options#inSampleSize} and scaled to the target
+ * size by the decoder, so the full size image is never held in memory.
+ */
+final class ThumbSource {
+
+    private final Bitmap mBitmap;
+    private final Resources mResources;
+    private final int mResId;
+    private final Object mKey;
+    private final int mRawWidth;
+    private final int mRawHeight;
+    private final int mWidth;
+    private final int mHeight;
+
+    private ThumbSource(Bitmap bitmap) {
+        mBitmap = bitmap;
+        mResources = null;
+        mResId = 0;
+        mKey = bitmap;
+        mRawWidth = mWidth = bitmap.getWidth();
+        mRawHeight = mHeight = bitmap.getHeight();
+    }
+
+    private ThumbSource(Resources resources, int resId, int rawWidth, int rawHeight, int width, int height) {
+        mBitmap = null;
+        mResources = resources;
+        mResId = resId;
+        mKey = new ResourceKey(resources, resId);
+        mRawWidth = rawWidth;
+        mRawHeight = rawHeight;
+        mWidth = width;
+        mHeight = height;
+    }
+
+    static ThumbSource of(Bitmap bitmap) {
+        return new ThumbSource(bitmap);
+    }
+
+    /**
+     * Returns the source of a {@link BitmapDrawable}.
+     *
+     * @return The source, or null if the drawable is not a bitmap and has to be drawn as it is.
+     */
+    static ThumbSource of(Drawable drawable) {
+        return drawable instanceof BitmapDrawable ? new ThumbSource(((BitmapDrawable) drawable).getBitmap()) : null;
+    }
+
+    /**
+     * Returns the source of a bitmap resource, reading only its size.
+     *
+     * @return The source, or null if the resource is not a bitmap, e.g. a vector or selector drawable.
+     */
+    static ThumbSource ofResource(Resources resources, int resId) {
+        TypedValue value = new TypedValue();
+        resources.getValue(resId, value, true);
+        if (value.string == null || value.string.toString().endsWith(".xml")) {
+            return null;
+        }
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        options.inScaled = false;
+        BitmapFactory.decodeResource(resources, resId, options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            return null;
+        }
+
+        // the size the resource would have as a drawable, images from other density buckets are scaled to this one
+        int resourceDensity = value.density == TypedValue.DENSITY_DEFAULT ? DisplayMetrics.DENSITY_DEFAULT : value.density;
+        int width = options.outWidth;
+        int height = options.outHeight;
+        if (resourceDensity != TypedValue.DENSITY_NONE) {
+            float scale = resources.getDisplayMetrics().densityDpi / (float) resourceDensity;
+            width = Math.max(1, Math.round(width * scale));
+            height = Math.max(1, Math.round(height * scale));
+        }
+        return new ThumbSource(resources, resId, options.outWidth, options.outHeight, width, height);
+    }
+
+    /**
+     * Returns the width of the unscaled image in pixels.
+     */
+    int getWidth() {
+        return mWidth;
+    }
+
+    /**
+     * Returns the height of the unscaled image in pixels.
+     */
+    int getHeight() {
+        return mHeight;
+    }
+
+    /**
+     * Returns an object identifying the image, for caching the scaled copies. Resources are identified together with
+     * the configuration they are decoded for, which may select another image.
+     */
+    Object getKey() {
+        return mKey;
+    }
+
+    /**
+     * Returns the image scaled so that its larger side is the given resolution.
+     *
+     * @param maxResolution The maximum width or height of the scaled image, not larger than the unscaled image.
+     * @return The scaled image.
+     */
+    Bitmap createScaled(int maxResolution) {
+        if (mBitmap != null) {
+            return PixelUtil.resizeBitmap(mBitmap, maxResolution);
+        }
+
+        int rawSize = Math.max(mRawWidth, mRawHeight);
+        int targetSize = Math.max(mWidth, mHeight) > maxResolution
+                ? maxResolution : Math.max(mWidth, mHeight);
+
+        // subsample as far as possible without going below the target size, the decoder scales the rest
+        int sampleSize = 1;
+        while (rawSize / (sampleSize * 2) >= targetSize) {
+            sampleSize *= 2;
+        }
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = sampleSize;
+        options.inScaled = true;
+        options.inDensity = rawSize / sampleSize;
+        options.inTargetDensity = targetSize;
+        Bitmap bitmap = BitmapFactory.decodeResource(mResources, mResId, options);
+        if (bitmap != null) {
+            // the densities above only set the decoder's scale, the image is meant for the display density
+            bitmap.setDensity(mResources.getDisplayMetrics().densityDpi);
+        }
+        return bitmap;
+    }
+
+    /**
+     * Identifies a resource decoded for the configuration parts that select or scale bitmap resources.
+     */
+    private static final class ResourceKey {
+        final int resId;
+        final int densityDpi;
+        final int uiMode;
+        final int layoutDirection;
+
+        ResourceKey(Resources resources, int resId) {
+            Configuration configuration = resources.getConfiguration();
+            this.resId = resId;
+            this.densityDpi = resources.getDisplayMetrics().densityDpi;
+            this.uiMode = configuration.uiMode;
+            this.layoutDirection = Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1
+                    ? configuration.getLayoutDirection() : 0;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ResourceKey)) {
+                return false;
+            }
+            ResourceKey other = (ResourceKey) o;
+            return resId == other.resId && densityDpi == other.densityDpi && uiMode == other.uiMode
+                    && layoutDirection == other.layoutDirection;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = resId;
+            hash = 31 * hash + densityDpi;
+            hash = 31 * hash + uiMode;
+            return 31 * hash + layoutDirection;
+        }
+    }
+}
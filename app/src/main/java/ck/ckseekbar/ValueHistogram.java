@@ -0,0 +1,203 @@
+package ck.ckseekbar;
+
+import java.util.Arrays;
+
+/**
+ * Streaming histogram of data values over a range, used to show the data distribution behind the track.
+ * <br>
+ * Values are merged into a fixed number of buckets as they arrive and are not kept themselves, so any number of
+ * values takes the same memory. Every bucket keeps its count and the smallest and largest value it holds. When the
+ * range or the bucket count changes, the existing buckets are merged into the new ones. Only a new bucket count
+ * allocates, so rebinding a recycled widget to another range does not.
+ * <br>
+ * Methods are synchronized so that values can be added from any thread. Readers of several buckets should hold the
+ * lock on the histogram to see a consistent state.
+ */
+final class ValueHistogram {
+
+    static final int DEFAULT_BUCKET_COUNT = 256;
+
+    private double mRangeMin;
+    private double mRangeMax;
+    private int mBucketCount;
+    private int[] mCounts;
+    private double[] mMins;
+    private double[] mMaxs;
+    // copies of the buckets while they are merged into the same arrays
+    private int[] mScratchCounts;
+    private double[] mScratchMins;
+    private double[] mScratchMaxs;
+    private int mMaxCount;
+    private long mTotalCount;
+    private int mVersion;
+
+    ValueHistogram(double rangeMin, double rangeMax, int bucketCount) {
+        mRangeMin = rangeMin;
+        mRangeMax = rangeMax;
+        allocate(Math.max(1, bucketCount));
+    }
+
+    /**
+     * Merges the given values into the buckets. Values outside the range are ignored.
+     *
+     * @param values The array holding the values.
+     * @param offset The index of the first value to add.
+     * @param length The number of values to add.
+     */
+    synchronized void add(double[] values, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            double value = values[i];
+            int bucket = bucketOf(value);
+            if (bucket >= 0) {
+                addToBucket(bucket, 1, value, value);
+            }
+        }
+        mVersion++;
+    }
+
+    synchronized void clear() {
+        reset();
+        mVersion++;
+    }
+
+    /**
+     * Changes the range covered by the buckets. Buckets that end up outside the new range are dropped.
+     */
+    synchronized void setRange(double rangeMin, double rangeMax) {
+        if (rangeMin == mRangeMin && rangeMax == mRangeMax) {
+            return;
+        }
+        mRangeMin = rangeMin;
+        mRangeMax = rangeMax;
+        rebucket(mBucketCount);
+    }
+
+    /**
+     * Changes the number of buckets, e.g. to have one bucket per pixel of the track.
+     */
+    synchronized void setBucketCount(int bucketCount) {
+        bucketCount = Math.max(1, bucketCount);
+        if (bucketCount != mBucketCount) {
+            rebucket(bucketCount);
+        }
+    }
+
+    synchronized int getBucketCount() {
+        return mBucketCount;
+    }
+
+    synchronized int getCount(int bucket) {
+        return mCounts[bucket];
+    }
+
+    synchronized double getMin(int bucket) {
+        return mMins[bucket];
+    }
+
+    synchronized double getMax(int bucket) {
+        return mMaxs[bucket];
+    }
+
+    /**
+     * Returns the count of the fullest bucket.
+     */
+    synchronized int getMaxCount() {
+        return mMaxCount;
+    }
+
+    /**
+     * Returns the number of values held by all buckets.
+     */
+    synchronized long getTotalCount() {
+        return mTotalCount;
+    }
+
+    /**
+     * Returns a number that changes whenever the buckets change.
+     */
+    synchronized int getVersion() {
+        return mVersion;
+    }
+
+    private int bucketOf(double value) {
+        double normalized = RangeMath.valueToNormalized(value, mRangeMin, mRangeMax);
+        // also rejects NaN
+        if (!(normalized >= 0d && normalized <= 1d)) {
+            return -1;
+        }
+        return Math.min(mBucketCount - 1, (int) (normalized * mBucketCount));
+    }
+
+    private void addToBucket(int bucket, int count, double min, double max) {
+        int newCount = mCounts[bucket] + count;
+        if (mCounts[bucket] == 0) {
+            mMins[bucket] = min;
+            mMaxs[bucket] = max;
+        } else {
+            mMins[bucket] = Math.min(mMins[bucket], min);
+            mMaxs[bucket] = Math.max(mMaxs[bucket], max);
+        }
+        mCounts[bucket] = newCount;
+        mMaxCount = Math.max(mMaxCount, newCount);
+        mTotalCount += count;
+    }
+
+    /**
+     * Moves every bucket into the new bucket that holds the middle of its values.
+     */
+    private void rebucket(int bucketCount) {
+        int oldCount = mBucketCount;
+        int[] counts = mCounts;
+        double[] mins = mMins;
+        double[] maxs = mMaxs;
+
+        if (bucketCount != oldCount) {
+            allocate(bucketCount);
+        } else if (mTotalCount == 0) {
+            // nothing to move
+            mVersion++;
+            return;
+        } else {
+            if (mScratchCounts == null || mScratchCounts.length < oldCount) {
+                mScratchCounts = new int[oldCount];
+                mScratchMins = new double[oldCount];
+                mScratchMaxs = new double[oldCount];
+            }
+            System.arraycopy(mCounts, 0, mScratchCounts, 0, oldCount);
+            System.arraycopy(mMins, 0, mScratchMins, 0, oldCount);
+            System.arraycopy(mMaxs, 0, mScratchMaxs, 0, oldCount);
+            counts = mScratchCounts;
+            mins = mScratchMins;
+            maxs = mScratchMaxs;
+            reset();
+        }
+        for (int i = 0; i < oldCount; i++) {
+            if (counts[i] == 0) {
+                continue;
+            }
+            int bucket = bucketOf(0.5d * (mins[i] + maxs[i]));
+            if (bucket >= 0) {
+                addToBucket(bucket, counts[i], mins[i], maxs[i]);
+            }
+        }
+        mVersion++;
+    }
+
+    private void allocate(int bucketCount) {
+        mBucketCount = bucketCount;
+        mCounts = new int[bucketCount];
+        mMins = new double[bucketCount];
+        mMaxs = new double[bucketCount];
+        mMaxCount = 0;
+        mTotalCount = 0;
+    }
+
+    /**
+     * Empties the buckets in place. Min and max of an empty bucket are never read, only the counts are cleared.
+     */
+    private void reset() {
+        Arrays.fill(mCounts, 0, mBucketCount, 0);
+        mMaxCount = 0;
+        mTotalCount = 0;
+    }
+}
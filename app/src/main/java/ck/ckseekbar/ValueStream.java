@@ -0,0 +1,89 @@
+package ck.ckseekbar;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single value slot between a fast producer, e.g. a media position source, and a {@link CKSeekBar} bound to it
+ * with {@link CKSeekBar#bindSelectedMaxValue(ValueStream)} or {@link CKSeekBar#bindSelectedMinValue(ValueStream)}.
+ * <br>
+ * Pushing never blocks and never queues: a new value replaces one the widget has not taken yet, and the widget takes
+ * at most one value per frame. Any thread may push.
+ * <br>
+ * Longs are kept as they are and applied like {@link CKSeekBar#setSelectedMaxValueLong(long)}, so positions beyond
+ * 2^53, like nanosecond timestamps, are not rounded on the way as long as the range spans at most 2^53 values.
+ */
+public final class ValueStream {
+
+    // NaN bit patterns, push never stores NaN so these can not be pushed doubles
+    static final long TAKEN_NONE = 0x7ff8000000000001L;
+    static final long TAKEN_LONG = 0x7ff8000000000002L;
+
+    private final AtomicLong mSlot = new AtomicLong(TAKEN_NONE);
+    // the value of the latest push(long), published by storing TAKEN_LONG into the slot after it
+    private volatile long mLong;
+    private volatile Runnable mConsumer;
+
+    /**
+     * Offers a new value. Values that were pushed but not taken yet are dropped. NaN is ignored.
+     *
+     * @param value The latest value.
+     */
+    public void push(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        offer(Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * Offers a new value without boxing it or rounding it to a double. See {@link #push(double)}.
+     *
+     * @param value The latest value.
+     */
+    public void push(long value) {
+        mLong = value;
+        offer(TAKEN_LONG);
+    }
+
+    private void offer(long bits) {
+        // only the first value after the slot was emptied has to wake the consumer
+        if (mSlot.getAndSet(bits) == TAKEN_NONE) {
+            Runnable consumer = mConsumer;
+            if (consumer != null) {
+                consumer.run();
+            }
+        }
+    }
+
+    /**
+     * Returns true if a value was pushed that has not been taken yet.
+     */
+    public boolean hasValue() {
+        return mSlot.get() != TAKEN_NONE;
+    }
+
+    /**
+     * Takes the latest value and empties the slot.
+     *
+     * @return The raw bits of the latest double, {@link #TAKEN_LONG} if it was pushed as a long, to be read with
+     * {@link #takenLong()}, or {@link #TAKEN_NONE} if there is none.
+     */
+    long take() {
+        return mSlot.getAndSet(TAKEN_NONE);
+    }
+
+    /**
+     * Returns the latest long after {@link #take()} returned {@link #TAKEN_LONG}. A long pushed in between is returned
+     * already, and taken once more with the next frame.
+     */
+    long takenLong() {
+        return mLong;
+    }
+
+    /**
+     * Sets the callback run by the pushing thread when a value arrives in an empty slot.
+     */
+    void setConsumer(Runnable consumer) {
+        mConsumer = consumer;
+    }
+}
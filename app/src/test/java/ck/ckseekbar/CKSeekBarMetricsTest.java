@@ -0,0 +1,40 @@
+package ck.ckseekbar;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CKSeekBarMetricsTest {
+
+    @Test
+    public void histogram_percentilesArePowerOfTwoBounds() {
+        CKSeekBarMetrics.Histogram histogram = new CKSeekBarMetrics.Histogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(100, histogram.getMax());
+        assertEquals(50.5d, histogram.getMean(), 0d);
+        // 50 falls into [32, 64)
+        assertEquals(63, histogram.getPercentile(50));
+        assertEquals(100, histogram.getPercentile(99));
+        assertEquals(0, new CKSeekBarMetrics.Histogram().getPercentile(50));
+    }
+
+    @Test
+    public void drawsPerSecond_isMeasuredOverOneSecondWindows() {
+        CKSeekBarMetrics metrics = new CKSeekBarMetrics();
+        long frame = 1000000000L / 60;
+        for (int i = 0; i <= 61; i++) {
+            metrics.recordDraw(i * frame, i * frame + 1000);
+        }
+
+        assertEquals(62, metrics.getDrawCount());
+        assertEquals(60f, metrics.getDrawsPerSecond(), 0.5f);
+
+        metrics.reset();
+        assertEquals(0, metrics.getDrawCount());
+        assertEquals(0f, metrics.getDrawsPerSecond(), 0f);
+    }
+}
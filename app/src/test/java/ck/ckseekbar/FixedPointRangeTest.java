@@ -0,0 +1,70 @@
+package ck.ckseekbar;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.Assert.*;
+
+public class FixedPointRangeTest {
+
+    @Test
+    public void longRangeBeyondDoublePrecisionIsExact() {
+        long start = 1_700_000_000_123_456_789L;
+        FixedPointRange range = new FixedPointRange();
+        range.setRange(start, start + 1_000_000_000L, NumberType.LONG, 2);
+
+        assertTrue(range.isEnabled());
+        long value = start + 123_456_789L;
+        double normalized = range.unitsToNormalized(range.toUnits(value));
+        assertEquals(value, range.normalizedToUnits(normalized));
+        assertEquals(start, range.normalizedToUnits(0d));
+        assertEquals(start + 1_000_000_000L, range.normalizedToUnits(1d));
+        assertEquals(Long.valueOf(value), range.toNumber(range.normalizedToUnits(normalized)));
+    }
+
+    @Test
+    public void fullLongRange() {
+        FixedPointRange range = new FixedPointRange();
+        range.setRange(Long.MIN_VALUE, Long.MAX_VALUE, NumberType.LONG, 2);
+
+        assertEquals(Long.MIN_VALUE, range.normalizedToUnits(0d));
+        assertEquals(Long.MAX_VALUE, range.normalizedToUnits(1d));
+        assertEquals(0.5d, range.unitsToNormalized(0L), 1e-15);
+        assertEquals(0L, range.normalizedToUnits(0.5d), 1L);
+        assertEquals(0.75d, range.unitsToNormalized(range.normalizedToUnits(0.75d)), 1e-15);
+    }
+
+    @Test
+    public void bigDecimalUsesDecimalPlaces() {
+        FixedPointRange range = new FixedPointRange();
+        range.setRange(new BigDecimal("-1.5"), new BigDecimal("2.5"), NumberType.BIG_DECIMAL, 3);
+
+        assertEquals(-1500L, range.normalizedToUnits(0d));
+        assertEquals(500L, range.normalizedToUnits(0.5d));
+        assertEquals(new BigDecimal("0.500"), range.toNumber(500L));
+        assertEquals(0.5d, range.unitsToDouble(500L), 0d);
+        assertEquals(0.25d, range.unitsToNormalized(range.toUnits(new BigDecimal("-0.5"))), 0d);
+        assertEquals(2000L, range.longToUnits(2L));
+        assertEquals(1L, range.unitsToLong(1999L));
+    }
+
+    @Test
+    public void descendingAndClampedValues() {
+        FixedPointRange range = new FixedPointRange();
+        range.setRange(100, 0, NumberType.INTEGER, 2);
+
+        assertEquals(75L, range.normalizedToUnits(0.25d));
+        assertEquals(0.25d, range.unitsToNormalized(75L), 0d);
+        assertEquals(0d, range.unitsToNormalized(150L), 0d);
+        assertEquals(1d, range.unitsToNormalized(-5L), 0d);
+    }
+
+    @Test
+    public void floatingPointTypesAreNotHandled() {
+        FixedPointRange range = new FixedPointRange();
+        range.setRange(0d, 1d, NumberType.DOUBLE, 2);
+
+        assertFalse(range.isEnabled());
+    }
+}
@@ -0,0 +1,52 @@
+package ck.ckseekbar;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class GroupConstraintsTest {
+
+    @Test
+    public void ascending_adjustsAroundPinnedValue() {
+        double[] values = {5, 1, 7, 2};
+        GroupConstraints.ascending(values, 4, 2);
+
+        assertArrayEquals(new double[]{1, 1, 7, 7}, values, 0d);
+    }
+
+    @Test
+    public void ascending_withoutPinnedValueRaisesLaterValues() {
+        double[] values = {5, 1, 7, 2};
+        GroupConstraints.ascending(values, 4, -1);
+
+        assertArrayEquals(new double[]{5, 5, 7, 7}, values, 0d);
+    }
+
+    @Test
+    public void descending_adjustsAroundPinnedValue() {
+        double[] values = {1, 5, 2, 3};
+        GroupConstraints.descending(values, 4, 1);
+
+        assertArrayEquals(new double[]{5, 5, 2, 2}, values, 0d);
+    }
+
+    @Test
+    public void fixedSum_spreadsDifferenceOverFreeValues() {
+        double[] values = {10, 10, 10, 10};
+        double[] mins = {0, 0, 0, 0};
+        double[] maxs = {100, 100, 12, 100};
+        GroupConstraints.fixedSum(values, mins, maxs, 4, 0, 61);
+
+        assertArrayEquals(new double[]{10, 19.5, 12, 19.5}, values, 1e-9);
+    }
+
+    @Test
+    public void fixedSum_stopsAtLimits() {
+        double[] values = {50, 50};
+        double[] mins = {0, 0};
+        double[] maxs = {100, 100};
+        GroupConstraints.fixedSum(values, mins, maxs, 2, 0, 10);
+
+        assertArrayEquals(new double[]{50, 0}, values, 0d);
+    }
+}
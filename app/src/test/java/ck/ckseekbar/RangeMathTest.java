@@ -0,0 +1,62 @@
+package ck.ckseekbar;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RangeMathTest {
+
+    private static final float PADDING = 100f;
+    private static final int WIDTH = 1100;
+
+    @Test
+    public void normalizedToValue_roundsToTwoDecimals() {
+        assertEquals(33.33, RangeMath.normalizedToValue(1d / 3d, 0, 100), 0d);
+        assertEquals(-50d, RangeMath.normalizedToValue(0.5d, -100, 0), 0d);
+    }
+
+    @Test
+    public void valueToNormalized_emptyRangeIsZero() {
+        assertEquals(0d, RangeMath.valueToNormalized(5, 5, 5), 0d);
+        assertEquals(0.25d, RangeMath.valueToNormalized(25, 0, 100), 0d);
+    }
+
+    @Test
+    public void screenConversions_roundTrip() {
+        assertEquals(PADDING, RangeMath.normalizedToScreen(0d, PADDING, WIDTH), 0f);
+        assertEquals(WIDTH - PADDING, RangeMath.normalizedToScreen(1d, PADDING, WIDTH), 0f);
+        assertEquals(0.3d, RangeMath.screenToNormalized(RangeMath.normalizedToScreen(0.3d, PADDING, WIDTH), PADDING, WIDTH), 1e-6);
+    }
+
+    @Test
+    public void screenToNormalized_clampsAndHandlesNarrowWidth() {
+        assertEquals(0d, RangeMath.screenToNormalized(0f, PADDING, WIDTH), 0d);
+        assertEquals(1d, RangeMath.screenToNormalized(WIDTH, PADDING, WIDTH), 0d);
+        assertEquals(0d, RangeMath.screenToNormalized(50f, PADDING, 150), 0d);
+    }
+
+    @Test
+    public void evalPressedThumb() {
+        assertEquals(RangeMath.THUMB_MIN, RangeMath.evalPressedThumb(310f, 300f, 700f, 50f, WIDTH));
+        assertEquals(RangeMath.THUMB_MAX, RangeMath.evalPressedThumb(690f, 300f, 700f, 50f, WIDTH));
+        // outside both thumbs the closer one wins
+        assertEquals(RangeMath.THUMB_MAX, RangeMath.evalPressedThumb(900f, 300f, 700f, 50f, WIDTH));
+        // thumbs on top of each other: the one with more room to drag
+        assertEquals(RangeMath.THUMB_MAX, RangeMath.evalPressedThumb(100f, 100f, 100f, 50f, WIDTH));
+        assertEquals(RangeMath.THUMB_MIN, RangeMath.evalPressedThumb(1000f, 1000f, 1000f, 50f, WIDTH));
+    }
+
+    @Test
+    public void nearestThumb() {
+        double[] positions = {0.1d, 0.4d, 0.4d, 0.8d, 0d};
+
+        assertEquals(0, RangeMath.nearestThumb(positions, 4, 0d));
+        assertEquals(3, RangeMath.nearestThumb(positions, 4, 1d));
+        assertEquals(0, RangeMath.nearestThumb(positions, 4, 0.2d));
+        // stacked thumbs: the one that can move towards the touch
+        assertEquals(2, RangeMath.nearestThumb(positions, 4, 0.45d));
+        assertEquals(1, RangeMath.nearestThumb(positions, 4, 0.35d));
+        assertEquals(3, RangeMath.nearestThumb(positions, 4, 0.7d));
+        assertEquals(0, RangeMath.nearestThumb(positions, 1, 0.9d));
+    }
+}
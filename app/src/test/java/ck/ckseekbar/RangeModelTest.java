@@ -0,0 +1,119 @@
+package ck.ckseekbar;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class RangeModelTest {
+
+    @Test
+    public void bounds_areExact() {
+        RangeModel model = new RangeModel(-1d, 2d);
+
+        assertEquals(0d, model.getNormalizedMin(), 0d);
+        assertEquals(1d, model.getNormalizedMax(), 0d);
+    }
+
+    @Test
+    public void wideLongRange_roundTripsExactly() {
+        // two weeks in nanoseconds, far more values than 2^32
+        FixedPointRange range = new FixedPointRange();
+        range.setRange(1500000000000000000L, 1500000000000000000L + 1209600000000000L, NumberType.LONG, 0);
+        RangeModel model = new RangeModel();
+
+        for (long offset = 1L; offset < 1209600000000000L; offset = offset * 7 + 3) {
+            long min = 1500000000000000000L + offset / 2;
+            long max = 1500000000000000000L + offset;
+            model.setNormalizedValues(range.unitsToNormalized(min), range.unitsToNormalized(max));
+
+            assertEquals(min, range.normalizedToUnits(model.getNormalizedMin()));
+            assertEquals(max, range.normalizedToUnits(model.getNormalizedMax()));
+        }
+    }
+
+    @Test
+    public void valuesAreClampedToEachOther() {
+        RangeModel model = new RangeModel();
+        assertTrue(model.setNormalizedMax(0.4));
+        assertTrue(model.setNormalizedMin(0.6));
+
+        assertEquals(0.4, model.getNormalizedMin(), 0d);
+        assertEquals(0.4, model.getNormalizedMax(), 0d);
+        assertFalse(model.setNormalizedMin(0.5));
+    }
+
+    @Test
+    public void setNormalizedValues_ordersAndClamps() {
+        RangeModel model = new RangeModel();
+        assertTrue(model.setNormalizedValues(1.5, 0.25));
+
+        assertEquals(0.25, model.getNormalizedMin(), 0d);
+        assertEquals(1d, model.getNormalizedMax(), 0d);
+        assertFalse(model.setNormalizedValues(0.25, 1d));
+    }
+
+    @Test
+    public void listenersExceptOriginAreNotified() {
+        final AtomicInteger calls = new AtomicInteger();
+        RangeModel.OnRangeModelChangeListener counting = new RangeModel.OnRangeModelChangeListener() {
+            @Override
+            public void onRangeModelChanged(RangeModel model, double normalizedMin, double normalizedMax) {
+                calls.incrementAndGet();
+            }
+        };
+        RangeModel.OnRangeModelChangeListener origin = new RangeModel.OnRangeModelChangeListener() {
+            @Override
+            public void onRangeModelChanged(RangeModel model, double normalizedMin, double normalizedMax) {
+                fail("the origin of a change is not notified");
+            }
+        };
+        RangeModel model = new RangeModel();
+        model.addOnRangeModelChangeListener(counting);
+        model.addOnRangeModelChangeListener(counting);
+        model.addOnRangeModelChangeListener(origin);
+
+        model.setNormalizedMin(0.1, origin);
+        model.setNormalizedMin(0.1, origin);
+        model.removeOnRangeModelChangeListener(origin);
+        model.setNormalizedMax(0.9);
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void concurrentUpdatesKeepMinBelowMax() throws InterruptedException {
+        final RangeModel model = new RangeModel();
+        final AtomicBoolean inverted = new AtomicBoolean();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final boolean max = t % 2 == 0;
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 10000; i++) {
+                        double value = (i % 100) / 100d;
+                        if (max) {
+                            model.setNormalizedMax(value);
+                        } else {
+                            model.setNormalizedMin(value);
+                        }
+                        RangeModel.Selection selection = model.getSelection();
+                        if (selection.normalizedMin > selection.normalizedMax) {
+                            // an assertion would only end this thread, the test checks this after join
+                            inverted.set(true);
+                        }
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertFalse(inverted.get());
+        assertTrue(model.getNormalizedMin() <= model.getNormalizedMax());
+    }
+}
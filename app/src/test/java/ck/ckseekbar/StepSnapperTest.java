@@ -0,0 +1,84 @@
+package ck.ckseekbar;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class StepSnapperTest {
+
+    @Test
+    public void disabledByDefault() {
+        StepSnapper snapper = new StepSnapper();
+        snapper.setRange(0, 100);
+
+        assertFalse(snapper.isEnabled());
+        assertEquals(0.123d, snapper.snap(0.123d), 0d);
+    }
+
+    @Test
+    public void evenSteps() {
+        StepSnapper snapper = new StepSnapper();
+        snapper.setRange(0, 100);
+        snapper.setStep(10);
+
+        assertTrue(snapper.isEnabled());
+        assertEquals(0.1d, snapper.snap(0.12d), 1e-12);
+        assertEquals(0.2d, snapper.snap(0.16d), 1e-12);
+        assertEquals(0d, snapper.snap(-1d), 0d);
+        assertEquals(1d, snapper.snap(0.97d), 0d);
+    }
+
+    @Test
+    public void lastPartialStepReachesMaximum() {
+        StepSnapper snapper = new StepSnapper();
+        snapper.setRange(0, 25);
+        snapper.setStep(10);
+
+        assertEquals(0.8d, snapper.snap(0.85d), 1e-12);
+        assertEquals(1d, snapper.snap(0.95d), 0d);
+    }
+
+    @Test
+    public void millisecondTimeline() {
+        StepSnapper snapper = new StepSnapper();
+        snapper.setRange(0, 3600000);
+        snapper.setStep(1);
+        snapper.setTrackGeometry(100f, 1200);
+
+        double snapped = snapper.snap(0.5000001d);
+        assertEquals(1800000d, snapped * 3600000, 1e-6);
+        assertEquals(0.5d, snapper.snapScreen(600f), 1e-12);
+    }
+
+    @Test
+    public void customSteps() {
+        StepSnapper snapper = new StepSnapper();
+        snapper.setRange(0, 100);
+        snapper.setSteps(new double[]{50, 0, 100, 10});
+        snapper.setTrackGeometry(100f, 1100);
+
+        assertEquals(0.1d, snapper.snap(0.2d), 1e-12);
+        assertEquals(0.5d, snapper.snap(0.4d), 1e-12);
+        assertEquals(1d, snapper.snap(2d), 0d);
+        assertEquals(0.5d, snapper.snapScreen(600f), 1e-12);
+
+        snapper.setSteps(null);
+        assertFalse(snapper.isEnabled());
+    }
+
+    @Test
+    public void snapPointsMatchSnappedValues() {
+        StepSnapper snapper = new StepSnapper();
+        snapper.setRange(0, 25);
+        snapper.setStep(10);
+
+        assertEquals(4, snapper.getSnapPointCount());
+        assertEquals(0d, snapper.getSnapPoint(0), 0d);
+        assertEquals(snapper.snap(0.41d), snapper.getSnapPoint(1), 0d);
+        assertEquals(snapper.snap(0.79d), snapper.getSnapPoint(2), 0d);
+        assertEquals(1d, snapper.getSnapPoint(3), 0d);
+
+        snapper.setStep(0);
+        assertEquals(0, snapper.getSnapPointCount());
+    }
+}
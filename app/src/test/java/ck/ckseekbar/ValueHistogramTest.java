@@ -0,0 +1,65 @@
+package ck.ckseekbar;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ValueHistogramTest {
+
+    @Test
+    public void batchesMergeIntoBuckets() {
+        ValueHistogram histogram = new ValueHistogram(0, 100, 10);
+        histogram.add(new double[]{1, 5, 99, 100}, 0, 4);
+        histogram.add(new double[]{-1, 3, 101, Double.NaN}, 1, 3);
+
+        assertEquals(5, histogram.getTotalCount());
+        assertEquals(3, histogram.getCount(0));
+        assertEquals(1d, histogram.getMin(0), 0d);
+        assertEquals(5d, histogram.getMax(0), 0d);
+        assertEquals(2, histogram.getCount(9));
+        assertEquals(3, histogram.getMaxCount());
+    }
+
+    @Test
+    public void bucketCountChangeKeepsCounts() {
+        ValueHistogram histogram = new ValueHistogram(0, 100, 10);
+        histogram.add(new double[]{1, 15, 55, 56}, 0, 4);
+        histogram.setBucketCount(2);
+
+        assertEquals(4, histogram.getTotalCount());
+        assertEquals(2, histogram.getCount(0));
+        assertEquals(2, histogram.getCount(1));
+        assertEquals(1d, histogram.getMin(0), 0d);
+        assertEquals(56d, histogram.getMax(1), 0d);
+    }
+
+    @Test
+    public void rangeChangeDropsOutsideBuckets() {
+        ValueHistogram histogram = new ValueHistogram(0, 100, 10);
+        histogram.add(new double[]{5, 75}, 0, 2);
+        int version = histogram.getVersion();
+        histogram.setRange(50, 100);
+
+        assertNotEquals(version, histogram.getVersion());
+        assertEquals(1, histogram.getTotalCount());
+        assertEquals(1, histogram.getCount(5));
+    }
+
+    @Test
+    public void rangeChangeKeepsBucketCount() {
+        ValueHistogram histogram = new ValueHistogram(0, 100, 10);
+        histogram.add(new double[]{5, 15, 75}, 0, 3);
+        histogram.setRange(0, 50);
+
+        assertEquals(10, histogram.getBucketCount());
+        assertEquals(2, histogram.getTotalCount());
+        assertEquals(1, histogram.getCount(1));
+        assertEquals(15d, histogram.getMin(3), 0d);
+        assertEquals(0, histogram.getCount(7));
+
+        histogram.clear();
+        histogram.setRange(0, 100);
+        assertEquals(0, histogram.getTotalCount());
+        assertEquals(0, histogram.getMaxCount());
+    }
+}
@@ -0,0 +1,59 @@
+package ck.ckseekbar;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ValueStreamTest {
+
+    @Test
+    public void latestValueWins() {
+        ValueStream stream = new ValueStream();
+        stream.push(1d);
+        stream.push(2d);
+        stream.push(Double.NaN);
+
+        assertTrue(stream.hasValue());
+        assertEquals(2d, Double.longBitsToDouble(stream.take()), 0d);
+        assertFalse(stream.hasValue());
+        assertEquals(ValueStream.TAKEN_NONE, stream.take());
+    }
+
+    @Test
+    public void longsAreKeptExactly() {
+        ValueStream stream = new ValueStream();
+        stream.push(1d);
+        stream.push(Long.MAX_VALUE - 1L);
+
+        assertEquals(ValueStream.TAKEN_LONG, stream.take());
+        assertEquals(Long.MAX_VALUE - 1L, stream.takenLong());
+
+        stream.push(3L);
+        stream.push(4d);
+        assertEquals(4d, Double.longBitsToDouble(stream.take()), 0d);
+    }
+
+    @Test
+    public void consumerIsWokenOncePerTake() {
+        final AtomicInteger wakeups = new AtomicInteger();
+        ValueStream stream = new ValueStream();
+        stream.setConsumer(new Runnable() {
+            @Override
+            public void run() {
+                wakeups.incrementAndGet();
+            }
+        });
+
+        for (int i = 0; i < 1000; i++) {
+            stream.push(i);
+        }
+        assertEquals(1, wakeups.get());
+
+        assertEquals(ValueStream.TAKEN_LONG, stream.take());
+        assertEquals(999L, stream.takenLong());
+        stream.push(5d);
+        assertEquals(2, wakeups.get());
+    }
+}
@@ -0,0 +1,84 @@
+package ck.ckseekbar;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the conversions between normalized values and long units of {@link FixedPointRange}, next to the
+ * double conversions of {@link RangeMath} they replace for integral and BigDecimal ranges.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FixedPointRangeBenchmark {
+
+    private static final int SAMPLES = 1024;
+
+    @Param({"LONG", "INTEGER", "BIG_DECIMAL"})
+    public String type;
+
+    private final FixedPointRange range = new FixedPointRange();
+    private double min;
+    private double max;
+    private final double[] normalized = new double[SAMPLES];
+    private final long[] units = new long[SAMPLES];
+    private final double[] values = new double[SAMPLES];
+    private int index;
+
+    @Setup
+    public void setUp() {
+        NumberType numberType = NumberType.valueOf(type);
+        if (numberType == NumberType.BIG_DECIMAL) {
+            range.setRange(new BigDecimal("0.00"), new BigDecimal("10000.00"), numberType, 2);
+        } else {
+            range.setRange(0L, 10000L, numberType, 0);
+        }
+        min = 0;
+        max = 10000;
+        for (int i = 0; i < SAMPLES; i++) {
+            normalized[i] = i / (double) (SAMPLES - 1);
+            units[i] = range.normalizedToUnits(normalized[i]);
+            values[i] = RangeMath.normalizedToValue(normalized[i], min, max);
+        }
+    }
+
+    private int next() {
+        index = (index + 1) & (SAMPLES - 1);
+        return index;
+    }
+
+    @Benchmark
+    public long normalizedToUnits() {
+        return range.normalizedToUnits(normalized[next()]);
+    }
+
+    @Benchmark
+    public double normalizedToValuePrim() {
+        return RangeMath.normalizedToValue(normalized[next()], min, max);
+    }
+
+    @Benchmark
+    public double unitsToNormalized() {
+        return range.unitsToNormalized(units[next()]);
+    }
+
+    @Benchmark
+    public double valueToNormalized() {
+        return RangeMath.valueToNormalized(values[next()], min, max);
+    }
+}
@@ -0,0 +1,72 @@
+package ck.ckseekbar;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the conversions between normalized values and range values through doubles, for every supported
+ * number type. Integral and BigDecimal ranges convert through long units instead, see
+ * {@link FixedPointRangeBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NumberTypeBenchmark {
+
+    private static final int SAMPLES = 1024;
+
+    @Param({"LONG", "DOUBLE", "INTEGER", "FLOAT", "SHORT", "BYTE", "BIG_DECIMAL"})
+    public String type;
+
+    private NumberType numberType;
+    private double min;
+    private double max;
+    private final double[] normalized = new double[SAMPLES];
+    private final Number[] values = new Number[SAMPLES];
+    private int index;
+
+    @Setup
+    public void setUp() {
+        numberType = NumberType.valueOf(type);
+        min = 0;
+        max = numberType == NumberType.BYTE ? Byte.MAX_VALUE : 10000;
+        for (int i = 0; i < SAMPLES; i++) {
+            normalized[i] = i / (double) (SAMPLES - 1);
+            values[i] = numberType.toNumber(RangeMath.normalizedToValue(normalized[i], min, max));
+        }
+    }
+
+    private int next() {
+        index = (index + 1) & (SAMPLES - 1);
+        return index;
+    }
+
+    @Benchmark
+    public double normalizedToValuePrim() {
+        return RangeMath.normalizedToValue(normalized[next()], min, max);
+    }
+
+    @Benchmark
+    public Number normalizedToValue() {
+        return numberType.toNumber(RangeMath.normalizedToValue(normalized[next()], min, max));
+    }
+
+    @Benchmark
+    public double valueToNormalized() {
+        return RangeMath.valueToNormalized(values[next()].doubleValue(), min, max);
+    }
+}
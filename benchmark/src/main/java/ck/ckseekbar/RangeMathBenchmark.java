@@ -0,0 +1,89 @@
+package ck.ckseekbar;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the screen space conversions, hit testing and step snapping CKSeekBar runs for every touch sample
+ * and every frame.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RangeMathBenchmark {
+
+    private static final int SAMPLES = 1024;
+    private static final int WIDTH = 1080;
+    private static final float PADDING = 120f;
+    private static final float THUMB_HALF_WIDTH = 60f;
+
+    private final double[] normalized = new double[SAMPLES];
+    private final float[] screen = new float[SAMPLES];
+    private final StepSnapper evenSteps = new StepSnapper();
+    private final StepSnapper customSteps = new StepSnapper();
+    private int index;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < SAMPLES; i++) {
+            normalized[i] = i / (double) (SAMPLES - 1);
+            screen[i] = i * WIDTH / (float) SAMPLES;
+        }
+
+        // a one hour timeline in milliseconds
+        evenSteps.setRange(0, 3600000);
+        evenSteps.setStep(1);
+        evenSteps.setTrackGeometry(PADDING, WIDTH);
+
+        double[] values = new double[4096];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i * i;
+        }
+        customSteps.setRange(0, values[values.length - 1]);
+        customSteps.setSteps(values);
+        customSteps.setTrackGeometry(PADDING, WIDTH);
+    }
+
+    private int next() {
+        index = (index + 1) & (SAMPLES - 1);
+        return index;
+    }
+
+    @Benchmark
+    public float normalizedToScreen() {
+        return RangeMath.normalizedToScreen(normalized[next()], PADDING, WIDTH);
+    }
+
+    @Benchmark
+    public double screenToNormalized() {
+        return RangeMath.screenToNormalized(screen[next()], PADDING, WIDTH);
+    }
+
+    @Benchmark
+    public int evalPressedThumb() {
+        return RangeMath.evalPressedThumb(screen[next()], 300f, 700f, THUMB_HALF_WIDTH, WIDTH);
+    }
+
+    @Benchmark
+    public double snapEvenSteps() {
+        return evenSteps.snapScreen(screen[next()]);
+    }
+
+    @Benchmark
+    public double snapCustomSteps() {
+        return customSteps.snapScreen(screen[next()]);
+    }
+}